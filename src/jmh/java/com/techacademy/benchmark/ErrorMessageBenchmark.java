@@ -0,0 +1,41 @@
+package com.techacademy.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.constants.ErrorMessage;
+
+// エラーメッセージの取得のベンチマーク
+// コントローラでの使い方と同じく、マップにあるかを確認してから名称と値を取得する
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorMessageBenchmark {
+
+    // マップにあるエラー・ないエラー
+    @Param({ "HALFSIZE_ERROR", "CONTENT_LENGTH_ERROR", "SUCCESS" })
+    private ErrorKinds errorKinds;
+
+    @Benchmark
+    public void lookup(Blackhole blackhole) {
+        if (ErrorMessage.contains(errorKinds)) {
+            blackhole.consume(ErrorMessage.getErrorName(errorKinds));
+            blackhole.consume(ErrorMessage.getErrorValue(errorKinds));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.techacademy.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.techacademy.ExecutorPasswordEncoder;
+
+// パスワードのハッシュ化・照合のベンチマーク
+// 既定のコスト(app.security.bcrypt-strength=10)での所要時間と、専用スレッドプール経由で実行する分の上乗せを測る
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordBenchmark {
+
+    // BCryptのコスト
+    @Param({ "10" })
+    private int strength;
+
+    private ExecutorPasswordEncoder encoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setup() {
+        encoder = new ExecutorPasswordEncoder(strength, Runtime.getRuntime().availableProcessors(), 200,
+                Duration.ofSeconds(3));
+        encodedPassword = encoder.encode("password1");
+    }
+
+    @TearDown
+    public void tearDown() {
+        encoder.destroy();
+    }
+
+    // ハッシュ化(従業員登録・更新時)
+    @Benchmark
+    public String encode() {
+        return encoder.encode("password1");
+    }
+
+    // 照合(ログイン時)
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("password1", encodedPassword);
+    }
+}
@@ -0,0 +1,57 @@
+package com.techacademy.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.techacademy.entity.Employee;
+import com.techacademy.service.UserDetail;
+
+// ログインユーザー情報(UserDetail)の作成のベンチマーク
+// 認証時と、画面で権限を参照する時の処理
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDetailBenchmark {
+
+    private Employee employee;
+    private UserDetail userDetail;
+
+    @Setup
+    public void setup() {
+        employee = new Employee();
+        employee.setCode("1");
+        employee.setName("煌木 太郎");
+        employee.setRole(Employee.Role.ADMIN);
+        employee.setPassword("$2a$10$vY93/U2cXCfEMBESYnDJUevcjJ208sXav23S.K8elE/J6Sxr4w5jO");
+        employee.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+        userDetail = new UserDetail(employee);
+    }
+
+    // 作成
+    @Benchmark
+    public UserDetail create() {
+        return new UserDetail(employee);
+    }
+
+    // 権限の取得
+    @Benchmark
+    public Collection<? extends GrantedAuthority> authorities() {
+        return userDetail.getAuthorities();
+    }
+}
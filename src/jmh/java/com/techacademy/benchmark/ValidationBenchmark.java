@@ -0,0 +1,68 @@
+package com.techacademy.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Report;
+import com.techacademy.service.InputValidator;
+
+// 入力チェック(従業員のパスワード・日報)のベンチマーク
+// パラメータはチェック結果ごとに1つとし、従業員と日報で別の状態にする(組み合わせで同じ処理を重複して測らない)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class PasswordState {
+
+        // 正常なパスワード・半角英数字以外を含むパスワード・桁数が範囲外のパスワード
+        @Param({ "password1", "パスワード1234", "pass" })
+        private String password;
+    }
+
+    @State(Scope.Benchmark)
+    public static class ReportState {
+
+        // 日報の内容の文字数(正常・上限超過)
+        @Param({ "10", "601" })
+        private int contentLength;
+
+        private Report report;
+
+        @Setup
+        public void setup() {
+            report = new Report();
+            report.setReportDate(LocalDate.of(2024, 1, 1));
+            report.setTitle("タイトル");
+            report.setContent("あ".repeat(contentLength));
+        }
+    }
+
+    // 従業員パスワードの入力チェック(空白・半角英数字・桁数)
+    @Benchmark
+    public ErrorKinds checkPassword(PasswordState state) {
+        return InputValidator.checkPassword(state.password);
+    }
+
+    // 日報の入力チェック(日付・タイトル・内容)
+    @Benchmark
+    public ErrorKinds validateReport(ReportState state) {
+        return InputValidator.validateReport(state.report);
+    }
+}
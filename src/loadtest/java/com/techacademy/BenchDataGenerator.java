@@ -0,0 +1,142 @@
+package com.techacademy;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.entity.Employee;
+
+// 負荷試験用の試験データ作成(benchプロファイルのみ)
+// 従業員(社員番号10001～)と、各従業員の昨日までの指定日数分の日報を作成する
+// 乱数の種を固定しているため、同じ設定であれば毎回同じデータになる
+// (起動完了時の全文検索インデックスの構築より前に実行される)
+@Component
+@Profile("bench")
+public class BenchDataGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchDataGenerator.class);
+
+    // 最初の従業員の社員番号
+    public static final int FIRST_CODE = 10001;
+
+    // 1回のバッチINSERTの件数
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_EMPLOYEE = "INSERT INTO employees (code, name, role, password, delete_flg, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_REPORT = "INSERT INTO reports (report_date, title, content, employee_code, delete_flg, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] FAMILY_NAMES = { "佐藤", "鈴木", "高橋", "田中", "伊藤", "渡辺", "山本", "中村", "小林", "加藤",
+            "吉田", "山田", "佐々木", "山口", "松本", "井上", "木村", "林", "清水", "山崎" };
+    private static final String[] GIVEN_NAMES = { "太郎", "花子", "一郎", "陽子", "健太", "美咲", "大輔", "由美", "翔太", "恵子",
+            "拓也", "直美", "亮", "真由美", "誠", "愛", "和也", "裕子", "悠斗", "さくら" };
+    private static final String[] PROJECTS = { "顧客管理システム", "在庫管理システム", "社内ポータル", "経費精算アプリ", "勤怠管理システム",
+            "ECサイト", "予約管理システム", "販売管理システム" };
+    private static final String[] TASKS = { "要件定義", "基本設計", "詳細設計", "実装", "単体テスト", "結合テスト", "レビュー対応",
+            "不具合修正", "リリース準備", "顧客打ち合わせ" };
+    private static final String[] SENTENCES = { "午前中は{project}の{task}を進めました。", "{task}の進捗は予定どおりです。",
+            "{project}の仕様について担当者と認識合わせを行いました。", "{task}で見つかった課題を一覧にまとめ、対応方針を相談しました。",
+            "午後は{task}の残作業を片付け、明日の作業計画を立てました。", "レビューで指摘を受けた箇所を修正し、再確認を依頼しました。",
+            "データベースの検索が遅い画面について原因を調査しました。", "チーム内の定例会議で今週の進捗を報告しました。",
+            "{project}のテストデータを準備し、確認手順を整理しました。", "想定より時間がかかったため、明日は{task}を優先して進めます。",
+            "新しく参加したメンバーに{project}の構成を説明しました。", "本日の作業で特に問題はありませんでした。" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final int employees;
+    private final int days;
+    private final String password;
+
+    @Autowired
+    public BenchDataGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            PasswordEncoder passwordEncoder, @Value("${app.bench.employees}") int employees,
+            @Value("${app.bench.days}") int days, @Value("${app.bench.password}") String password) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.employees = employees;
+        this.days = days;
+        this.password = password;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+
+        // パスワードは全員共通(ハッシュ化は1回のみ)
+        String encodedPassword = passwordEncoder.encode(password);
+
+        List<Object[]> employeeRows = new ArrayList<Object[]>();
+        for (int i = 1; i <= employees; i++) {
+            // 20人に1人は管理者
+            Employee.Role role = i % 20 == 0 ? Employee.Role.ADMIN : Employee.Role.GENERAL;
+            String name = pick(random, FAMILY_NAMES) + "　" + pick(random, GIVEN_NAMES);
+            employeeRows.add(new Object[] { code(i), name, role.name(), encodedPassword, false,
+                    Timestamp.valueOf(now), Timestamp.valueOf(now) });
+        }
+        batchInsert(INSERT_EMPLOYEE, employeeRows);
+
+        List<Object[]> reportRows = new ArrayList<Object[]>(BATCH_SIZE);
+        for (int i = 1; i <= employees; i++) {
+            for (int day = days; day >= 1; day--) {
+                String project = pick(random, PROJECTS);
+                String task = pick(random, TASKS);
+                reportRows.add(new Object[] { Date.valueOf(today.minusDays(day)), project + "の" + task,
+                        content(random, project, task), code(i), false, Timestamp.valueOf(now), Timestamp.valueOf(now) });
+                if (reportRows.size() == BATCH_SIZE) {
+                    batchInsert(INSERT_REPORT, reportRows);
+                    reportRows.clear();
+                }
+            }
+        }
+        batchInsert(INSERT_REPORT, reportRows);
+
+        logger.info("Bench data generated: {} employees, {} reports in {} ms", employees, (long) employees * days,
+                System.currentTimeMillis() - start);
+    }
+
+    // 試験データのnumber人目(1～)の従業員の社員番号
+    public static String code(int number) {
+        return String.valueOf(FIRST_CODE + number - 1);
+    }
+
+    // 日報の内容(3～6文。600文字以内)
+    private String content(Random random, String project, String task) {
+        StringBuilder content = new StringBuilder();
+        int count = 3 + random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            content.append(pick(random, SENTENCES).replace("{project}", project).replace("{task}", task));
+        }
+        return content.toString();
+    }
+
+    private String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.techacademy.loadtest;
+
+import java.util.Arrays;
+
+// 応答時間(ナノ秒)の記録
+// 計測後にすべての値を並べ替えてパーセンタイルを求める(件数が多い場合もメモリは1件8バイト)
+class LatencyRecorder {
+
+    private long[] values = new long[1024];
+    private int count;
+    private int errors;
+
+    synchronized void record(long nanos) {
+        if (count == values.length) {
+            values = Arrays.copyOf(values, count * 2);
+        }
+        values[count++] = nanos;
+    }
+
+    synchronized void error() {
+        errors++;
+    }
+
+    synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted, errors);
+    }
+
+    record Snapshot(long[] sorted, int errors) {
+
+        int count() {
+            return sorted.length;
+        }
+
+        // パーセンタイル(ミリ秒。記録がない場合は0)
+        double percentile(double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
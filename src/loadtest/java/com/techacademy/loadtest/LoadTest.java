@@ -0,0 +1,254 @@
+package com.techacademy.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.techacademy.BenchDataGenerator;
+import com.techacademy.DailyReportSystemApplication;
+
+// 画面操作の負荷試験
+// 同時利用者数分のスレッドで「ログイン→日報一覧→日報詳細→日報登録」を繰り返し、画面(URL)ごとのスループットと応答時間を出力する
+// --base-url を指定しない場合は、同じJVM内でbenchプロファイル(組み込みDB・試験データ作成)のアプリを起動して試験する
+//
+// オプション(--名前=値)
+//   --users     同時利用者数(既定 20)
+//   --duration  計測時間(既定 60s)
+//   --warmup    計測前の準備運転の時間(既定 10s)
+//   --base-url  起動済みのアプリに対して試験する場合のURL
+//   --employees ログインに使う試験データの従業員数(--base-url指定時のみ。既定 100)
+//   --password  試験データのパスワード(--base-url指定時のみ。既定 password1)
+// 上記以外のオプション(--spring.threads.virtual.enabled=true、--app.bench.days=30など)はアプリの起動時に渡す
+public class LoadTest {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern REPORT_LINK = Pattern.compile("href=\"/reports/(\\d+)/\"");
+
+    private final String baseUrl;
+    private final int users;
+    private final int employees;
+    private final String password;
+
+    // URLごとの応答時間
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<String, LatencyRecorder>();
+
+    // 従業員ごとに登録した日報の件数(登録する日付が重複しないようにする)
+    private final AtomicIntegerArray addedReports;
+
+    // 準備運転中は記録しない
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    public LoadTest(String baseUrl, int users, int employees, String password) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.employees = employees;
+        this.password = password;
+        this.addedReports = new AtomicIntegerArray(employees + 1);
+        for (String endpoint : List.of("GET /login", "POST /login", "GET /reports", "GET /reports/{id}/",
+                "GET /reports/add", "POST /reports/add")) {
+            recorders.put(endpoint, new LatencyRecorder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<String, String>();
+        List<String> applicationArgs = new ArrayList<String>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String name = eq < 0 ? arg : arg.substring(0, eq);
+            if (List.of("--users", "--duration", "--warmup", "--base-url", "--employees", "--password").contains(name)) {
+                options.put(name.substring(2), eq < 0 ? "" : arg.substring(eq + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+        int users = Integer.parseInt(options.getOrDefault("users", "20"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("base-url");
+        int employees = Integer.parseInt(options.getOrDefault("employees", "100"));
+        String password = options.getOrDefault("password", "password1");
+        if (baseUrl == null) {
+            // 開発用の自動再起動はmainメソッドをアプリの引数のみで呼び直すため使わない
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            context = new SpringApplicationBuilder(DailyReportSystemApplication.class).profiles("bench")
+                    .properties("server.port=0").run(applicationArgs.toArray(new String[0]));
+            baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            employees = context.getEnvironment().getRequiredProperty("app.bench.employees", Integer.class);
+            password = context.getEnvironment().getRequiredProperty("app.bench.password");
+        }
+
+        try {
+            new LoadTest(baseUrl, users, employees, password).run(warmup, duration);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    public void run(Duration warmup, Duration duration) throws InterruptedException {
+        System.out.printf("Load test: %s, %d users, warmup %s, duration %s%n", baseUrl, users, warmup, duration);
+
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        for (int i = 0; i < users; i++) {
+            int employee = i % employees + 1;
+            executor.execute(() -> userLoop(employee));
+        }
+
+        Thread.sleep(warmup.toMillis());
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        printResult(elapsed);
+    }
+
+    // 1人分の操作の繰り返し(1回ごとにクッキーを破棄してログインからやり直す)
+    private void userLoop(int employee) {
+        CookieManager cookies = new CookieManager();
+        HttpClient client = HttpClient.newBuilder().cookieHandler(cookies).followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10)).build();
+        while (running) {
+            cookies.getCookieStore().removeAll();
+            try {
+                scenario(client, employee);
+            } catch (IOException | IllegalStateException e) {
+                // 失敗した場合はその回の残りの操作を中止して次の回に進む
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // ログイン→日報一覧→日報詳細→日報登録
+    private void scenario(HttpClient client, int employee) throws IOException, InterruptedException {
+        String loginPage = send(client, "GET /login", get("/login"), 200);
+        String location = redirect(send(client, "POST /login", post("/login",
+                Map.of("username", BenchDataGenerator.code(employee), "password", password, "_csrf", csrf(loginPage)))));
+        if (location.contains("error")) {
+            throw new IllegalStateException("login failed: " + BenchDataGenerator.code(employee));
+        }
+
+        String list = send(client, "GET /reports", get("/reports"), 200);
+        Matcher link = REPORT_LINK.matcher(list);
+        if (link.find()) {
+            send(client, "GET /reports/{id}/", get("/reports/" + link.group(1) + "/"), 200);
+        }
+
+        String addPage = send(client, "GET /reports/add", get("/reports/add"), 200);
+        LocalDate reportDate = LocalDate.now().plusDays(addedReports.getAndIncrement(employee));
+        send(client, "POST /reports/add", post("/reports/add", Map.of("reportDate", reportDate.toString(), "title",
+                "負荷試験の日報", "content", "負荷試験で登録した日報です。", "_csrf", csrf(addPage))), 302);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest post(String path, Map<String, String> form) {
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, String> entry : form.entrySet()) {
+            if (body.length() > 0) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8));
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+    }
+
+    // リクエストを送信して応答時間を記録し、想定外のステータスの場合はエラーとする
+    private String send(HttpClient client, String endpoint, HttpRequest request, int expectedStatus)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = send(client, endpoint, request);
+        if (response.statusCode() != expectedStatus) {
+            if (recording) {
+                recorders.get(endpoint).error();
+            }
+            throw new IllegalStateException(endpoint + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private HttpResponse<String> send(HttpClient client, String endpoint, HttpRequest request)
+            throws IOException, InterruptedException {
+        LatencyRecorder recorder = recorders.get(endpoint);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (recording) {
+                recorder.record(System.nanoTime() - start);
+            }
+            return response;
+        } catch (IOException e) {
+            if (recording) {
+                recorder.error();
+            }
+            throw e;
+        }
+    }
+
+    private String redirect(HttpResponse<String> response) {
+        return response.headers().firstValue("Location")
+                .orElseThrow(() -> new IllegalStateException("no redirect: " + response.statusCode()));
+    }
+
+    private String csrf(String html) {
+        Matcher matcher = CSRF.matcher(html);
+        if (!matcher.find()) {
+            throw new IllegalStateException("CSRF token not found");
+        }
+        return matcher.group(1);
+    }
+
+    // URLごとの件数・エラー数・スループット・応答時間(ミリ秒)のパーセンタイル
+    private void printResult(long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%n%-20s %8s %7s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "req/s", "p50(ms)",
+                "p99(ms)", "p999(ms)", "max(ms)");
+        long total = 0;
+        for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+            LatencyRecorder.Snapshot snapshot = entry.getValue().snapshot();
+            total += snapshot.count();
+            System.out.printf("%-20s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(), snapshot.count(),
+                    snapshot.errors(), snapshot.count() / seconds, snapshot.percentile(0.50), snapshot.percentile(0.99),
+                    snapshot.percentile(0.999), snapshot.percentile(1.0));
+        }
+        System.out.printf("%-20s %8d %7s %9.1f%n", "total", total, "", total / seconds);
+    }
+}
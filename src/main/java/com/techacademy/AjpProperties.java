@@ -0,0 +1,46 @@
+package com.techacademy;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// AJPコネクタの設定(app.ajp.*)
+@ConfigurationProperties("app.ajp")
+public record AjpProperties(
+        // ポート番号
+        @DefaultValue("8009") int port,
+        // 入出力方式(NIO/NIO2)
+        @DefaultValue("nio2") Protocol protocol,
+        // リクエスト処理スレッド(SHARED: HTTPコネクタと共有、DEDICATED: AJP専用)
+        @DefaultValue("dedicated") ExecutorMode executor,
+        // 専用スレッドの最大数・待機数(executorがDEDICATEDの場合のみ有効)
+        @DefaultValue("200") int maxThreads,
+        @DefaultValue("10") int minSpareThreads,
+        // 同時接続数の上限と、上限到達時にOSが受け付けて待たせる接続数
+        @DefaultValue("8192") int maxConnections,
+        @DefaultValue("100") int acceptCount,
+        // 接続後の最初のリクエストを待つ時間と、リクエスト間のアイドル接続を保持する時間
+        @DefaultValue("60s") Duration connectionTimeout,
+        @DefaultValue("60s") Duration keepAliveTimeout,
+        // AJPパケットの最大サイズ(フロントのApache側のProxyIOBufferSize/max_packet_sizeと合わせる)
+        @DefaultValue("8192") int packetSize) {
+
+    public enum Protocol {
+        NIO("org.apache.coyote.ajp.AjpNioProtocol"), NIO2("org.apache.coyote.ajp.AjpNio2Protocol");
+
+        private final String className;
+
+        Protocol(String className) {
+            this.className = className;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+    }
+
+    public enum ExecutorMode {
+        SHARED, DEDICATED
+    }
+}
@@ -0,0 +1,35 @@
+package com.techacademy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.techacademy.service.EmployeeService;
+import com.techacademy.service.UserDetailService;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // 共通部品の描画結果のキャッシュ名
+    public static final String FRAGMENTS = "fragments";
+
+    /** キャッシュ設定 */
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.user-details.spec}") String userDetailsSpec,
+            @Value("${app.cache.current-employees.spec}") String currentEmployeesSpec,
+            @Value("${app.cache.fragments.spec}") String fragmentsSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(UserDetailService.CACHE_NAME);
+        cacheManager.setCacheSpecification(userDetailsSpec); // 件数上限・有効期限
+        cacheManager.registerCustomCache(EmployeeService.CURRENT_CACHE_NAME, Caffeine.from(currentEmployeesSpec).build());
+        cacheManager.registerCustomCache(FRAGMENTS, Caffeine.from(fragmentsSpec).build());
+
+        // キャッシュの破棄は更新・削除のトランザクションのコミット後に行う
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,159 @@
+package com.techacademy;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+// パスワードのハッシュ化・照合を専用のスレッドプールで実行するPasswordEncoder
+// ログイン集中時にBCryptの計算がTomcatのリクエストスレッドを占有しないよう同時実行数と待ち行列を制限し、
+// 待ち行列が上限に達した場合は待たずにエラーとする
+// 待ち行列に入った場合もリクエストスレッドが待つのはtimeoutまでとし、超えた場合は処理を取り消してエラーとする
+public class ExecutorPasswordEncoder implements PasswordEncoder, MeterBinder, DisposableBean {
+
+    // BCryptハッシュのコスト部分($2a$10$...の10)
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    // リクエストスレッドが結果を待つ上限(待ち行列の待ち時間を含む)
+    private final long timeoutNanos;
+    // 一括登録のハッシュ化の同時実行数(スレッド数まで。待ち行列をログインの照合のために空けておく)
+    private final Semaphore asyncPermits;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    // ハッシュ化・照合の所要時間(メトリクス登録前はnullで、計測しない)
+    private volatile Timer encodeTimer;
+    private volatile Timer matchesTimer;
+
+    public ExecutorPasswordEncoder(int strength, int threads, int queueCapacity, Duration timeout) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.asyncPermits = new Semaphore(threads);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> timed(encodeTimer, () -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> timed(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    // 一括登録用 ハッシュ化を専用スレッドで非同期に実行する
+    // 同時に投入するのはスレッド数までとし、それ以上は先に投入した処理の完了を待つ(ログインの照合を待ち行列で拒否させない)
+    // ログインで待ち行列が上限に達している場合はエラーにせず呼び出し元のスレッドで実行する(拒否件数には含める)
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        try {
+            asyncPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> timed(encodeTimer, () -> delegate.encode(rawPassword)), executor)
+                    .whenComplete((hash, e) -> asyncPermits.release());
+        } catch (RejectedExecutionException e) {
+            asyncPermits.release();
+            rejectedCount.incrementAndGet();
+            return CompletableFuture.completedFuture(timed(encodeTimer, () -> delegate.encode(rawPassword)));
+        }
+    }
+
+    // 保存済みパスワードのコストが設定値と異なる場合はtrueを返す
+    // (ログイン成功時にDaoAuthenticationProviderが設定値のコストで再ハッシュ化し、UserDetailsPasswordServiceで更新する)
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        if (!matcher.find()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    // 専用スレッドで実行し、結果を待つ(待ち時間が上限を超えた場合は取り消して拒否件数に含める)
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            throw new AuthenticationServiceException("パスワード処理の待ち行列が上限に達しました", e);
+        }
+
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            executor.remove((Runnable) future); // 待ち行列に残っている場合は取り除く
+            rejectedCount.incrementAndGet();
+            throw new AuthenticationServiceException("パスワード処理の待ち時間が上限を超えました", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("パスワード処理が中断されました", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // BCryptの計算の所要時間を記録(専用スレッドの待ち時間は含まない)
+    private <T> T timed(Timer timer, Supplier<T> task) {
+        return timer == null ? task.get() : timer.record(task);
+    }
+
+    // スレッド数・待ち行列の件数・拒否件数・BCryptの所要時間をメトリクスとして公開
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "passwordHashing", Tags.empty()).bindTo(registry);
+        FunctionCounter.builder("password.hashing.rejected", rejectedCount, AtomicLong::get)
+                .description("待ち行列が上限に達した・待ち時間が上限を超えたため拒否したパスワード処理の件数").register(registry);
+        encodeTimer = Timer.builder("password.hashing").tag("operation", "encode")
+                .description("BCryptによるハッシュ化・照合の所要時間").register(registry);
+        matchesTimer = Timer.builder("password.hashing").tag("operation", "matches")
+                .description("BCryptによるハッシュ化・照合の所要時間").register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,41 @@
+package com.techacademy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// 期限切れセッションの定期削除
+// 一度に削除する件数を制限し、1回ごとのDELETEをそれぞれ短いトランザクションで実行する(大量に期限切れになった場合もロックを長く保持しない)
+// 属性のテーブルは外部キー(ON DELETE CASCADE)でまとめて削除される
+public class ExpiredSessionCleaner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiredSessionCleaner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String deleteQuery;
+    private final int batchSize;
+
+    public ExpiredSessionCleaner(JdbcTemplate jdbcTemplate, String tableName, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.deleteQuery = "DELETE FROM " + tableName + " WHERE EXPIRY_TIME < ? LIMIT ?";
+        this.batchSize = batchSize;
+    }
+
+    // 削除した件数を返す
+    @Scheduled(cron = "${app.session.cleanup-cron}")
+    public int cleanUp() {
+        long now = System.currentTimeMillis();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(deleteQuery, now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            logger.debug("Cleaned up {} expired sessions", total);
+        }
+        return total;
+    }
+}
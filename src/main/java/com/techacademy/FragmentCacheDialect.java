@@ -0,0 +1,138 @@
+package com.techacademy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.context.IWebContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.standard.expression.StandardExpressions;
+import org.thymeleaf.standard.processor.StandardXmlNsTagProcessor;
+import org.thymeleaf.templatemode.TemplateMode;
+
+// 共通部品(th:fragment)の描画結果のキャッシュ
+// <ul th:fragment="menu" cache:fragment="${キーに含める値}"> のように指定すると、
+// テンプレート名・部品名・キーの値・閲覧者の権限ごとに描画結果を保持し、2回目以降は描画せずに保持した結果を出力する
+// (セッションごとに異なるCSRFトークンを含むフォームなどは対象の部品に含めないこと)
+public class FragmentCacheDialect extends AbstractProcessorDialect {
+
+    private static final String PREFIX = "cache";
+
+    // 部品を単独で描画中であることを示すフラグ(描画中は再度キャッシュを参照しない)
+    // (WebContextの変数はリクエスト属性として保持され描画後も残るため、変数ではなくスレッドごとに持つ)
+    private static final ThreadLocal<Boolean> RENDERING = new ThreadLocal<Boolean>();
+
+    private final Supplier<ITemplateEngine> templateEngine;
+    private final Cache cache;
+    private final boolean enabled;
+
+    public FragmentCacheDialect(Supplier<ITemplateEngine> templateEngine, Cache cache, boolean enabled) {
+        super("Fragment Cache", PREFIX, 10);
+        this.templateEngine = templateEngine;
+        this.cache = cache;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Set<IProcessor> getProcessors(String dialectPrefix) {
+        // xmlns:cache属性は出力から削除する
+        return Set.of(new FragmentAttrProcessor(dialectPrefix), new StandardXmlNsTagProcessor(TemplateMode.HTML, dialectPrefix));
+    }
+
+    private class FragmentAttrProcessor extends AbstractAttributeTagProcessor {
+
+        FragmentAttrProcessor(String dialectPrefix) {
+            // th:textなど同じ要素の他の属性より先に処理する
+            super(TemplateMode.HTML, dialectPrefix, null, false, "fragment", true, 10, true);
+        }
+
+        @Override
+        protected void doProcess(ITemplateContext context, IProcessableElementTag tag, AttributeName attributeName,
+                String attributeValue, IElementTagStructureHandler structureHandler) {
+            // 単独で描画中の場合・キャッシュ無効の場合は通常どおり描画する
+            String fragment = fragmentName(tag);
+            if (!enabled || fragment == null || RENDERING.get() != null) {
+                return;
+            }
+
+            String template = context.getTemplateData().getTemplate();
+            String key = template + "::" + fragment + "|" + keyValue(context, attributeValue) + "|" + authorities();
+            // 描画はキャッシュの外で行う(Cache#get(key, loader)はロックを保持したまま描画するため、仮想スレッドがピン留めされる)
+            // 同時に初回の描画が行われた場合は、それぞれ描画して後の結果で上書きする
+            Cache.ValueWrapper cached = cache.get(key);
+            String html;
+            if (cached != null) {
+                html = (String) cached.get();
+            } else {
+                html = render(context, template, fragment);
+                cache.put(key, html);
+            }
+            structureHandler.replaceWith(html, false);
+        }
+
+        // th:fragmentの部品名(引数の宣言は除く)
+        private String fragmentName(IProcessableElementTag tag) {
+            String value = tag.getAttributeValue("th", "fragment");
+            if (value == null) {
+                return null;
+            }
+            int paren = value.indexOf('(');
+            return (paren < 0 ? value : value.substring(0, paren)).trim();
+        }
+
+        // キーに含める値(属性値の式の評価結果)
+        private Object keyValue(ITemplateContext context, String attributeValue) {
+            if (attributeValue == null || attributeValue.isBlank()) {
+                return "";
+            }
+            return StandardExpressions.getExpressionParser(context.getConfiguration())
+                    .parseExpression(context, attributeValue).execute(context);
+        }
+
+        // 閲覧者の権限(sec:authorizeの結果は権限によって決まる)
+        private Set<String> authorities() {
+            Set<String> authorities = new TreeSet<String>();
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null) {
+                for (GrantedAuthority authority : authentication.getAuthorities()) {
+                    authorities.add(authority.getAuthority());
+                }
+            }
+            return authorities;
+        }
+
+        // 現在の変数(部品の引数を含む)で部品のみを単独で描画する
+        private String render(ITemplateContext context, String template, String fragment) {
+            Map<String, Object> variables = new HashMap<String, Object>();
+            for (String name : context.getVariableNames()) {
+                variables.put(name, context.getVariable(name));
+            }
+
+            IContext fragmentContext = context instanceof IWebContext webContext
+                    ? new WebContext(webContext.getExchange(), context.getLocale(), variables)
+                    : new Context(context.getLocale(), variables);
+            RENDERING.set(Boolean.TRUE);
+            try {
+                return templateEngine.get().process(template, Set.of(fragment), fragmentContext);
+            } finally {
+                RENDERING.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.techacademy;
+
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Hibernateの第2レベルキャッシュ(JCache、実装はCaffeine)
+// リージョンはapp.hibernate-cache.regions.*の設定から作成する
+@Configuration
+@EnableConfigurationProperties(HibernateCacheProperties.class)
+public class HibernateCacheConfig {
+
+    /** 第2レベルキャッシュのリージョンを保持するキャッシュマネージャ */
+    @Bean
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        // アプリケーションごとに別のキャッシュマネージャとする(同じJVMで複数起動するテストで共有されないようにする)
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("urn:hibernate-cache:" + UUID.randomUUID()), getClass().getClassLoader(),
+                        new Properties());
+        properties.regions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<Object, Object>();
+            configuration.setStoreByValue(false); // エンティティはHibernateが分解した状態で保存されるため複製しない
+            configuration.setMaximumSize(OptionalLong.of(region.maximumSize()));
+            if (!region.expireAfterWrite().isZero()) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.expireAfterWrite().toNanos()));
+            }
+            cacheManager.createCache(name, configuration);
+        });
+        return cacheManager;
+    }
+
+    /** Hibernateに作成済みのキャッシュマネージャを使わせる */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /** リージョンごとの統計情報を返す管理用エンドポイント */
+    @Bean
+    public HibernateCacheEndpoint hibernateCacheEndpoint(CacheManager hibernateCacheManager,
+            EntityManagerFactory entityManagerFactory) {
+        return new HibernateCacheEndpoint(hibernateCacheManager, entityManagerFactory);
+    }
+}
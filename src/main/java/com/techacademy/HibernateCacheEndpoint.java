@@ -0,0 +1,52 @@
+package com.techacademy;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// 第2レベルキャッシュのリージョンごとの統計情報(/actuator/hibernatecaches、ADMINのみ)
+// ヒット・ミス・登録の件数は起動時からの累計(spring.jpa.properties.hibernate.generate_statistics=trueの場合のみ集計される)
+@Endpoint(id = "hibernatecaches")
+public class HibernateCacheEndpoint {
+
+    private final CacheManager cacheManager;
+    private final Statistics statistics;
+
+    public HibernateCacheEndpoint(CacheManager cacheManager, EntityManagerFactory entityManagerFactory) {
+        this.cacheManager = cacheManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, RegionStatistics> regions() {
+        Map<String, RegionStatistics> regions = new TreeMap<String, RegionStatistics>();
+        for (String name : cacheManager.getCacheNames()) {
+            // 保持件数はキャッシュから直接取得する(HibernateのJCache連携では集計されないため)
+            Cache<?, ?> cache = cacheManager.getCache(name);
+            long size = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+            // 更新日時のリージョンはHibernateの統計情報の対象外
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            regions.put(name, region == null ? new RegionStatistics(size, null, null, null, null)
+                    : new RegionStatistics(size, region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                            hitRatio(region.getHitCount(), region.getMissCount())));
+        }
+        return regions;
+    }
+
+    private static Double hitRatio(long hits, long misses) {
+        return hits + misses == 0 ? null : (double) hits / (hits + misses);
+    }
+
+    public record RegionStatistics(long size, Long hits, Long misses, Long puts, Double hitRatio) {
+    }
+}
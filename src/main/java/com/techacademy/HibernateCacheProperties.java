@@ -0,0 +1,21 @@
+package com.techacademy;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Hibernateの第2レベルキャッシュの設定(app.hibernate-cache.*)
+@ConfigurationProperties("app.hibernate-cache")
+public record HibernateCacheProperties(
+        // リージョン名(@Cache・@NaturalIdCacheのregion、検索結果のリージョン)ごとの設定(設定のないリージョンを使う場合は起動時にエラーとなる)
+        Map<String, Region> regions) {
+
+    public record Region(
+            // 件数上限
+            @DefaultValue("1000") long maximumSize,
+            // 登録・更新からの有効期限(他のサーバーで更新された内容はこの時間が経過するまで反映されない。0の場合は期限なし)
+            @DefaultValue("10m") Duration expireAfterWrite) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.techacademy;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class MetricsConfig {
+
+    /** @Timedを付けたクラス・メソッドの所要時間を計測する(メトリクス名はアノテーションで指定、class・methodタグ付き) */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
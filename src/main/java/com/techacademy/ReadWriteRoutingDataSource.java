@@ -0,0 +1,73 @@
+package com.techacademy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 読み取り専用トランザクション(@Transactional(readOnly = true))の接続をレプリカに振り分けるDataSource
+// 振り分けはトランザクションの開始後に判定する必要があるため、LazyConnectionDataSourceProxyで包んで使う
+// (最初のSQLの実行時に接続を取得するため、その時点で読み取り専用かどうかが確定している)
+// レプリカに接続できない場合はプライマリを使い、retryInterval経過後に再びレプリカを試す
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryIntervalNanos;
+
+    // レプリカを使わない期限(System.nanoTime()の値。0はレプリカを使う)
+    private volatile long replicaDownUntil;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration retryInterval) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryIntervalNanos = retryInterval.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                replicaDown(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException | RuntimeException e) {
+                replicaDown(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    // 読み取り専用トランザクション中で、レプリカが停止中と判定されていない場合はレプリカを使う
+    private boolean useReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        long downUntil = replicaDownUntil;
+        return downUntil == 0 || System.nanoTime() - downUntil >= 0;
+    }
+
+    private void replicaDown(Exception e) {
+        replicaDownUntil = System.nanoTime() + retryIntervalNanos;
+        logger.warn("Replica is unavailable, using primary for read-only transactions for {} s: {}",
+                retryIntervalNanos / 1_000_000_000, e.toString());
+    }
+}
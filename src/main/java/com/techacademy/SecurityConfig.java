@@ -1,11 +1,14 @@
 package com.techacademy;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -21,14 +24,19 @@ public class SecurityConfig {
         ).logout(logout -> logout.logoutSuccessUrl("/login") // ログアウト後のリダイレクト先
         ).authorizeHttpRequests(
                 auth -> auth.requestMatchers(PathRequest.toStaticResources().atCommonLocations()).permitAll() // css等は未ログインでアクセス可
-                        .requestMatchers("/employees/**").hasAnyAuthority("ADMIN").anyRequest().authenticated()); // その他はログイン必要
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll() // 死活監視は未ログインでアクセス可
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasAnyAuthority("ADMIN") // その他の管理用エンドポイントはADMINのみ
+                        .requestMatchers("/employees/**", "/imports/**", "/reports/export.csv").hasAnyAuthority("ADMIN").anyRequest().authenticated()); // その他はログイン必要
 
         return http.build();
     }
 
-    /** ハッシュ化したパスワードの比較に使用する */
+    /** ハッシュ化したパスワードの比較に使用する(専用スレッドで実行、コストが設定値と異なる場合はログイン時に再ハッシュ化) */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public ExecutorPasswordEncoder passwordEncoder(@Value("${app.security.bcrypt-strength}") int strength,
+            @Value("${app.security.password-hashing.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity}") int queueCapacity,
+            @Value("${app.security.password-hashing.timeout}") Duration timeout) {
+        return new ExecutorPasswordEncoder(strength, threads, queueCapacity, timeout);
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.techacademy;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+
+// セッションのDBへの保存(Spring Session JDBC)
+// 保存先はSpring SessionのSessionRepositoryで抽象化されており、spring-session-jdbcを他の実装(Redisなど)に置き換えると保存先が切り替わる
+// (このクラスはJDBC実装を使う場合のみ有効)
+@Configuration
+@ConditionalOnClass(JdbcIndexedSessionRepository.class)
+@EnableScheduling
+public class SessionConfig implements BeanClassLoaderAware {
+
+    private ClassLoader classLoader;
+
+    @Override
+    public void setBeanClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /** セッション属性の直列化(閾値以上のサイズの属性は圧縮する) */
+    @Bean
+    public ConversionService springSessionConversionService(
+            @Value("${app.session.compression-threshold}") int compressionThreshold) {
+        SessionSerializer serializer = new SessionSerializer(compressionThreshold, classLoader);
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class, new SerializingConverter(serializer));
+        conversionService.addConverter(byte[].class, Object.class, new DeserializingConverter(serializer));
+        return conversionService;
+    }
+
+    /** 参照のみのリクエストではセッションを保存しない(最終アクセス日時はtouch-intervalごとに保存する) */
+    @Bean
+    public static BeanPostProcessor touchThrottlingSessionRepositoryPostProcessor(
+            @Value("${app.session.touch-interval}") Duration touchInterval) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JdbcIndexedSessionRepository repository) {
+                    return new TouchThrottlingSessionRepository<>(repository, touchInterval);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /** 期限切れセッションの定期削除(件数を区切って削除する) */
+    @Bean
+    public ExpiredSessionCleaner expiredSessionCleaner(JdbcTemplate jdbcTemplate,
+            @Value("${spring.session.jdbc.table-name:SPRING_SESSION}") String tableName,
+            @Value("${app.session.cleanup-batch-size}") int batchSize) {
+        return new ExpiredSessionCleaner(jdbcTemplate, tableName, batchSize);
+    }
+}
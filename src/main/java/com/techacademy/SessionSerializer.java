@@ -0,0 +1,70 @@
+package com.techacademy;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+
+// DBに保存するセッション属性の直列化
+// Javaの直列化の結果が閾値以上の場合はDeflate(zlib形式)で圧縮する
+// (保存前に閾値未満だった属性・圧縮前に保存された属性は、先頭のバイトで判別してそのまま読み込む)
+public class SessionSerializer implements Serializer<Object>, Deserializer<Object> {
+
+    // zlib形式の先頭のバイト(Javaの直列化の先頭は0xAC)
+    private static final int ZLIB_HEADER = 0x78;
+
+    private final int compressionThreshold;
+    private final ClassLoader classLoader;
+
+    public SessionSerializer(int compressionThreshold, ClassLoader classLoader) {
+        this.compressionThreshold = compressionThreshold;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public void serialize(Object object, OutputStream outputStream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        if (bytes.size() < compressionThreshold) {
+            bytes.writeTo(outputStream);
+            return;
+        }
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            DeflaterOutputStream out = new DeflaterOutputStream(outputStream, deflater);
+            bytes.writeTo(out);
+            out.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public Object deserialize(InputStream inputStream) throws IOException {
+        InputStream in = new BufferedInputStream(inputStream);
+        in.mark(1);
+        boolean compressed = in.read() == ZLIB_HEADER;
+        in.reset();
+        if (compressed) {
+            in = new InflaterInputStream(in);
+        }
+
+        try (ConfigurableObjectInputStream objectIn = new ConfigurableObjectInputStream(in, classLoader)) {
+            return objectIn.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Failed to deserialize session attribute", e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.techacademy;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+// リクエストごとのSQLの件数・実行時間の計測
+// DataSourceのプロキシから実行完了ごとに呼ばれ、リクエストの処理中のスレッドであれば記録する
+// (リクエストの開始・終了はSqlProfilingFilterが行う。リクエスト外のSQLは遅いSQLのログのみ対象)
+// ログレベルをDEBUGにすると全リクエストの件数・時間を、TRACEにすると実行したSQLを1件ずつ出力する
+public class SqlProfiler implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlProfiler.class);
+
+    // SQLに直接書かれた値(文字列・数値)。同じ形のSQLをまとめるために?に置き換える
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ThreadLocal<Profile> current = new ThreadLocal<Profile>();
+    private final SqlProfilerProperties properties;
+
+    public SqlProfiler(SqlProfilerProperties properties) {
+        this.properties = properties;
+    }
+
+    // 現在のスレッドで計測を開始
+    public void start() {
+        current.set(new Profile());
+    }
+
+    // 現在のスレッドの計測を終了して結果を返す
+    public Profile stop() {
+        Profile profile = current.get();
+        current.remove();
+        return profile;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        if (elapsed >= properties.slowQueryThreshold().toMillis()) {
+            logger.warn("Slow SQL ({} ms): {}", elapsed, queries(queryInfoList));
+        } else if (logger.isTraceEnabled()) {
+            logger.trace("SQL ({} ms): {}", elapsed, queries(queryInfoList));
+        }
+
+        Profile profile = current.get();
+        if (profile != null) {
+            // バッチ実行は1件として数える
+            profile.record(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery(), elapsed);
+        }
+    }
+
+    // 閾値を超えたリクエスト・N+1の疑いのあるSQLのログを出力
+    public void report(String request, Profile profile, long totalMillis) {
+        if (profile.statementCount() >= properties.statementThreshold()
+                || profile.jdbcMillis() >= properties.timeThreshold().toMillis()) {
+            logger.warn("SQL profile: {} -> {} statements, {} ms JDBC / {} ms total", request,
+                    profile.statementCount(), profile.jdbcMillis(), totalMillis);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("SQL profile: {} -> {} statements, {} ms JDBC / {} ms total", request,
+                    profile.statementCount(), profile.jdbcMillis(), totalMillis);
+        }
+        profile.repeatedStatements(properties.repeatedThreshold()).forEach((sql, count) -> logger
+                .warn("Possible N+1: {} executed the same statement {} times: {}", request, count, sql));
+    }
+
+    private static String queries(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream().map(QueryInfo::getQuery).toList().toString();
+    }
+
+    // 1リクエスト分の計測結果
+    public static class Profile {
+        private int statementCount;
+        private long jdbcMillis;
+
+        // SQLの形ごとの実行回数
+        private final Map<String, Integer> patterns = new LinkedHashMap<String, Integer>();
+
+        void record(String sql, long elapsedMillis) {
+            statementCount++;
+            jdbcMillis += elapsedMillis;
+            String pattern = LITERALS.matcher(WHITESPACE.matcher(sql.trim()).replaceAll(" ")).replaceAll("?");
+            patterns.merge(pattern, 1, Integer::sum);
+        }
+
+        public int statementCount() {
+            return statementCount;
+        }
+
+        public long jdbcMillis() {
+            return jdbcMillis;
+        }
+
+        // threshold回以上実行されたSQLの形と実行回数
+        public Map<String, Integer> repeatedStatements(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<String, Integer>();
+            patterns.forEach((sql, count) -> {
+                if (count >= threshold) {
+                    repeated.put(sql, count);
+                }
+            });
+            return repeated;
+        }
+    }
+}
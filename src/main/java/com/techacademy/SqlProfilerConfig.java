@@ -0,0 +1,50 @@
+package com.techacademy;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+// リクエストごとのSQLの計測(app.sql-profiler.enabled=trueの場合のみ)
+@Configuration
+@ConditionalOnProperty(name = "app.sql-profiler.enabled", havingValue = "true")
+@EnableConfigurationProperties(SqlProfilerProperties.class)
+public class SqlProfilerConfig {
+
+    @Bean
+    public SqlProfiler sqlProfiler(SqlProfilerProperties properties) {
+        return new SqlProfiler(properties);
+    }
+
+    /** DataSourceをSQLの実行時間を計測するプロキシに置き換える(レプリカ構成時は振り分け前のDataSourceのみ) */
+    @Bean
+    public static BeanPostProcessor sqlProfilerDataSourcePostProcessor(ObjectProvider<SqlProfiler> sqlProfiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(dataSource).name(beanName)
+                            .listener(sqlProfiler.getObject()).build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /** ログイン処理(Spring Securityのフィルタ)のSQLも含めるため、他のフィルタより先に計測を開始する */
+    @Bean
+    public FilterRegistrationBean<SqlProfilingFilter> sqlProfilingFilter(SqlProfiler sqlProfiler) {
+        FilterRegistrationBean<SqlProfilingFilter> registration = new FilterRegistrationBean<SqlProfilingFilter>(
+                new SqlProfilingFilter(sqlProfiler));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,20 @@
+package com.techacademy;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// リクエストごとのSQLの計測の設定(app.sql-profiler.*)
+@ConfigurationProperties("app.sql-profiler")
+public record SqlProfilerProperties(
+        // 計測するかどうか(falseの場合はDataSourceを置き換えず、計測の処理は一切行わない)
+        @DefaultValue("false") boolean enabled,
+        // 1リクエストのSQLの件数・合計実行時間がこれ以上の場合にログを出力する
+        @DefaultValue("30") int statementThreshold,
+        @DefaultValue("200ms") Duration timeThreshold,
+        // 1件の実行時間がこれ以上のSQLのログを出力する
+        @DefaultValue("100ms") Duration slowQueryThreshold,
+        // 1リクエストで同じSQLがこの回数以上実行された場合にN+1の疑いとしてログを出力する
+        @DefaultValue("5") int repeatedThreshold) {
+}
@@ -0,0 +1,34 @@
+package com.techacademy;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// リクエストの開始から終了(画面の描画を含む)までに実行されたSQLを計測する
+public class SqlProfilingFilter extends OncePerRequestFilter {
+
+    private final SqlProfiler profiler;
+
+    public SqlProfilingFilter(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        profiler.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlProfiler.Profile profile = profiler.stop();
+            profiler.report(request.getMethod() + " " + request.getRequestURI(), profile,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -1,32 +1,134 @@
 package com.techacademy; // ご自身の環境に合わせてください
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
 import org.apache.catalina.connector.Connector;
-import org.apache.coyote.ajp.AjpNio2Protocol;
+import org.apache.coyote.ajp.AbstractAjpProtocol;
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.TaskThreadFactory;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
 import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 @Configuration
-public class TomcatConfiguration implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+@EnableConfigurationProperties(AjpProperties.class)
+public class TomcatConfiguration implements WebServerFactoryCustomizer<TomcatServletWebServerFactory>, MeterBinder, DisposableBean {
+
+    private final Environment environment;
+    private final AjpProperties ajpProperties;
+    private final ServerProperties serverProperties;
+
+    // AJPコネクタ(メトリクス取得用)
+    private volatile AbstractAjpProtocol<?> ajpProtocol;
+
+    // HTTPコネクタと共有するリクエスト処理スレッド(executorがSHAREDの場合のみ)
+    private ThreadPoolExecutor sharedExecutor;
+
+    @Autowired
+    public TomcatConfiguration(Environment environment, AjpProperties ajpProperties, ServerProperties serverProperties) {
+        this.environment = environment;
+        this.ajpProperties = ajpProperties;
+        this.serverProperties = serverProperties;
+    }
 
     @Override
     public void customize(TomcatServletWebServerFactory factory) {
+        // HTTPコネクタとAJPコネクタで同じスレッドプールを使う場合
+        // (仮想スレッドが有効な場合はどちらもリクエストごとに仮想スレッドを使うため共有しない)
+        if (ajpProperties.executor() == AjpProperties.ExecutorMode.SHARED && !Threading.VIRTUAL.isActive(environment)) {
+            sharedExecutor = createSharedExecutor();
+            factory.addProtocolHandlerCustomizers(protocolHandler -> protocolHandler.setExecutor(sharedExecutor));
+        }
+
         // Tomcatとの通信手段にAJPを追加
         factory.addAdditionalTomcatConnectors(ajpConnector());
     }
 
-    private Connector ajpConnector() {
-        // AJPの利用を宣言
-        Connector connector = new Connector("org.apache.coyote.ajp.AjpNio2Protocol");
+    Connector ajpConnector() {
+        // AJPの利用を宣言(NIO/NIO2は設定で切り替える)
+        Connector connector = new Connector(ajpProperties.protocol().getClassName());
 
-        // AJPの通信で8009番ポートを使うための指定
-        connector.setPort(8009);
+        // AJPの通信で使うポートの指定(既定は8009番)
+        connector.setPort(ajpProperties.port());
 
         // secretという保護機能を利用しないようにする設定
-        AjpNio2Protocol protocol = (AjpNio2Protocol) connector.getProtocolHandler();
+        AbstractAjpProtocol<?> protocol = (AbstractAjpProtocol<?>) connector.getProtocolHandler();
         protocol.setSecretRequired(false);
 
+        // 接続数・待ち行列・タイムアウト・パケットサイズ
+        protocol.setMaxConnections(ajpProperties.maxConnections());
+        protocol.setAcceptCount(ajpProperties.acceptCount());
+        protocol.setConnectionTimeout((int) ajpProperties.connectionTimeout().toMillis());
+        protocol.setKeepAliveTimeout((int) ajpProperties.keepAliveTimeout().toMillis());
+        protocol.setPacketSize(ajpProperties.packetSize());
+
+        // 仮想スレッドが有効な場合(Java 21以上でspring.threads.virtual.enabled=true)はリクエストを仮想スレッドで処理する
+        // (HTTPコネクタはSpring Bootが設定するが、追加したコネクタには適用されないためここで設定する)
+        if (Threading.VIRTUAL.isActive(environment)) {
+            protocol.setExecutor(new VirtualThreadExecutor("tomcat-ajp-"));
+        } else if (sharedExecutor != null) {
+            protocol.setExecutor(sharedExecutor);
+        } else {
+            protocol.setMaxThreads(ajpProperties.maxThreads());
+            protocol.setMinSpareThreads(ajpProperties.minSpareThreads());
+        }
+
+        ajpProtocol = protocol;
         return connector;
     }
 
-}
\ No newline at end of file
+    // 共有スレッドプール(Tomcatがコネクタごとに作成するものと同じ構成で、サイズはserver.tomcat.threads.*に従う)
+    private ThreadPoolExecutor createSharedExecutor() {
+        ServerProperties.Tomcat.Threads threads = serverProperties.getTomcat().getThreads();
+        TaskQueue taskQueue = new TaskQueue();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads.getMinSpare(), threads.getMax(), 60,
+                TimeUnit.SECONDS, taskQueue, new TaskThreadFactory("tomcat-shared-exec-", true, Thread.NORM_PRIORITY));
+        taskQueue.setParent(executor);
+        return executor;
+    }
+
+    // AJPコネクタの処理中スレッド数・待ち行列の件数・接続数をメトリクスとして公開
+    // (プロキシ側の接続プールの大きさに合わせてスレッド数・接続数を決めるための値)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        threadPoolGauge(registry, "tomcat.ajp.threads.busy", "処理中のリクエスト処理スレッド数", ThreadPoolExecutor::getActiveCount);
+        threadPoolGauge(registry, "tomcat.ajp.threads.current", "作成済みのリクエスト処理スレッド数", ThreadPoolExecutor::getPoolSize);
+        threadPoolGauge(registry, "tomcat.ajp.threads.max", "リクエスト処理スレッドの最大数", ThreadPoolExecutor::getMaximumPoolSize);
+        threadPoolGauge(registry, "tomcat.ajp.queue.size", "スレッドの空きを待っているリクエスト数", executor -> executor.getQueue().size());
+        Gauge.builder("tomcat.ajp.connections.current", this, config -> config.ajpProtocol == null ? Double.NaN
+                : config.ajpProtocol.getConnectionCount()).description("接続中のコネクション数").register(registry);
+        Gauge.builder("tomcat.ajp.connections.max", this, config -> config.ajpProtocol == null ? Double.NaN
+                : config.ajpProtocol.getMaxConnections()).description("コネクション数の上限").register(registry);
+    }
+
+    // スレッドプールの値(仮想スレッドの場合や起動前は値なし)
+    private void threadPoolGauge(MeterRegistry registry, String name, String description,
+            ToDoubleFunction<ThreadPoolExecutor> value) {
+        Gauge.builder(name, this, config -> {
+            Executor executor = config.ajpProtocol == null ? null : config.ajpProtocol.getExecutor();
+            return executor instanceof ThreadPoolExecutor pool ? value.applyAsDouble(pool) : Double.NaN;
+        }).description(description).register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        if (sharedExecutor != null) {
+            sharedExecutor.shutdown();
+        }
+    }
+
+}
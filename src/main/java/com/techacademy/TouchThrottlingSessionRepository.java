@@ -0,0 +1,134 @@
+package com.techacademy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+
+// セッションの保存を、作成・属性の変更・IDの変更があった場合と、最終アクセス日時が前回の保存から一定時間以上進んだ場合に限る
+// (参照のみのリクエストでは最終アクセス日時の更新のためにDBに書き込まない)
+// 最終アクセス日時の保存が最大touchInterval遅れるため、セッションはその分早く期限切れになることがある
+public class TouchThrottlingSessionRepository<S extends Session>
+        implements FindByIndexNameSessionRepository<TouchThrottlingSessionRepository.TrackedSession<S>> {
+
+    private final FindByIndexNameSessionRepository<S> delegate;
+    private final Duration touchInterval;
+
+    public TouchThrottlingSessionRepository(FindByIndexNameSessionRepository<S> delegate, Duration touchInterval) {
+        this.delegate = delegate;
+        this.touchInterval = touchInterval;
+    }
+
+    @Override
+    public TrackedSession<S> createSession() {
+        return new TrackedSession<S>(delegate.createSession(), true);
+    }
+
+    @Override
+    public void save(TrackedSession<S> session) {
+        if (session.changed || !session.getLastAccessedTime().isBefore(session.savedLastAccessedTime.plus(touchInterval))) {
+            delegate.save(session.delegate);
+        }
+    }
+
+    @Override
+    public TrackedSession<S> findById(String id) {
+        S session = delegate.findById(id);
+        return session == null ? null : new TrackedSession<S>(session, false);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+    }
+
+    @Override
+    public Map<String, TrackedSession<S>> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        Map<String, TrackedSession<S>> sessions = new LinkedHashMap<String, TrackedSession<S>>();
+        delegate.findByIndexNameAndIndexValue(indexName, indexValue)
+                .forEach((id, session) -> sessions.put(id, new TrackedSession<S>(session, false)));
+        return sessions;
+    }
+
+    // 変更の有無を記録するセッション
+    public static final class TrackedSession<S extends Session> implements Session {
+
+        private final S delegate;
+        private final Instant savedLastAccessedTime;
+        private boolean changed;
+
+        TrackedSession(S delegate, boolean changed) {
+            this.delegate = delegate;
+            this.savedLastAccessedTime = delegate.getLastAccessedTime();
+            this.changed = changed;
+        }
+
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            changed = true;
+            return delegate.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return delegate.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegate.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            changed = true;
+            delegate.setAttribute(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            changed = true;
+            delegate.removeAttribute(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return delegate.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            delegate.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            changed = true;
+            delegate.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegate.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return delegate.isExpired();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.techacademy;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// 画面(テンプレート)ごとの描画時間の計測
+// コントローラーの処理後から描画完了までの時間をview.renderメトリクス(viewタグはテンプレート名)として記録する
+public class ViewRenderTimingInterceptor implements HandlerInterceptor {
+
+    private static final String SAMPLE = ViewRenderTimingInterceptor.class.getName() + ".sample";
+    private static final String VIEW_NAME = ViewRenderTimingInterceptor.class.getName() + ".viewName";
+
+    private final MeterRegistry registry;
+
+    public ViewRenderTimingInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+            ModelAndView modelAndView) {
+        // リダイレクトは描画しないため対象外
+        if (modelAndView == null || modelAndView.getViewName() == null || modelAndView.getViewName().startsWith("redirect:")) {
+            return;
+        }
+        request.setAttribute(VIEW_NAME, modelAndView.getViewName());
+        request.setAttribute(SAMPLE, Timer.start(registry));
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(SAMPLE) instanceof Timer.Sample sample) {
+            sample.stop(Timer.builder("view.render").description("テンプレートの描画時間")
+                    .tag("view", (String) request.getAttribute(VIEW_NAME)).register(registry));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.techacademy;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+// 仮想スレッドのピン留め(キャリアスレッドを占有したままのブロック)の検出
+// synchronizedブロック内でのI/O(MySQL Connector/J 8.xの接続単位のロックなど)で発生するため、
+// JFRのjdk.VirtualThreadPinnedイベントを監視し、件数をメトリクスに、発生箇所をログに出力する
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    // ログに出力するスタックトレースの行数
+    private static final int STACK_DEPTH = 8;
+
+    private final Duration threshold;
+    private final Counter pinnedCount;
+    private RecordingStream recordingStream;
+
+    @Autowired
+    public VirtualThreadPinningMonitor(@Value("${app.virtual-threads.pinned-threshold:20ms}") Duration threshold,
+            MeterRegistry registry) {
+        this.threshold = threshold;
+        this.pinnedCount = Counter.builder("jvm.threads.virtual.pinned")
+                .description("閾値を超えてキャリアスレッドにピン留めされた仮想スレッドの件数").register(registry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        recordingStream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCount.increment();
+        if (logger.isWarnEnabled()) {
+            String frames = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                    .limit(STACK_DEPTH).map(this::format).collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+            String thread = event.getThread() == null ? "" : event.getThread().getJavaName();
+            logger.warn("Virtual thread pinned for {} ms [{}]{}", event.getDuration().toMillis(), thread, frames);
+        }
+    }
+
+    private String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    @Override
+    public void destroy() {
+        recordingStream.close();
+    }
+}
@@ -0,0 +1,73 @@
+package com.techacademy;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+import org.thymeleaf.ITemplateEngine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    // CSS・JavaScriptのキャッシュ期間
+    private final Duration staticCacheMaxAge;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public WebMvcConfig(@Value("${app.static.cache-max-age:365d}") Duration staticCacheMaxAge, MeterRegistry meterRegistry) {
+        this.staticCacheMaxAge = staticCacheMaxAge;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** CSS・JavaScriptの配信設定 */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        addVersionedResourceHandler(registry, "/css/**", "classpath:/static/css/");
+        addVersionedResourceHandler(registry, "/js/**", "classpath:/static/js/");
+    }
+
+    // URLに内容のハッシュを付ける(/css/bootstrap.min-<hash>.css)ため、内容が変わればURLも変わる
+    // そのためブラウザ・プロキシには再検証なしで長期間キャッシュさせる
+    private void addVersionedResourceHandler(ResourceHandlerRegistry registry, String pathPattern, String location) {
+        registry.addResourceHandler(pathPattern).addResourceLocations(location)
+                .setCacheControl(CacheControl.maxAge(staticCacheMaxAge).cachePublic().immutable())
+                .resourceChain(true)
+                // ビルド時に作成した圧縮済みファイル(.br/.gz)があり、ブラウザが対応している場合はそちらを返す
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    /** 画面ごとの描画時間の計測 */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ViewRenderTimingInterceptor(meterRegistry));
+    }
+
+    /** 共通部品の描画結果のキャッシュ(テンプレートのキャッシュが無効な開発時は使用しない) */
+    @Bean
+    public FragmentCacheDialect fragmentCacheDialect(ObjectProvider<ITemplateEngine> templateEngine,
+            CacheManager cacheManager, @Value("${spring.thymeleaf.cache:true}") boolean templateCacheEnabled) {
+        return new FragmentCacheDialect(templateEngine::getObject, cacheManager.getCache(CacheConfig.FRAGMENTS),
+                templateCacheEnabled);
+    }
+
+    /** Thymeleafの@{...}で出力するURLをハッシュ付きのURLに変換する */
+    @Bean
+    public FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+        return new FilterRegistrationBean<ResourceUrlEncodingFilter>(new ResourceUrlEncodingFilter());
+    }
+}
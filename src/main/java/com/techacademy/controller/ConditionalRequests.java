@@ -0,0 +1,41 @@
+package com.techacademy.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpSession;
+
+// 詳細画面の条件付きGET(ETag・Last-Modified)
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    // 更新日時から検証子を設定し、ブラウザのキャッシュが最新の場合はtrueを返す(304を返し画面は作成しない)
+    // 画面の内容は閲覧者の権限で変わり、フォームのCSRFトークンはセッションごとに異なるため、
+    // ETagには更新日時に加えてユーザー名・権限・セッションIDを含める
+    static boolean checkNotModified(ServletWebRequest webRequest, LocalDateTime updatedAt) {
+        // キャッシュは閲覧者のブラウザのみとし、表示のたびに再検証させる
+        // (Spring Securityの既定のno-storeはキャッシュ自体を禁止するため上書きする)
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        if (updatedAt == null) {
+            return false;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        HttpSession session = webRequest.getRequest().getSession(false);
+        String source = updatedAt + "|" + (authentication == null ? "" : authentication.getName() + "|" + authentication.getAuthorities())
+                + "|" + (session == null ? "" : session.getId());
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8)) + "\"";
+        long lastModified = updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return webRequest.checkNotModified(etag, lastModified);
+    }
+}
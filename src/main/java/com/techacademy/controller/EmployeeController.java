@@ -1,5 +1,7 @@
 package com.techacademy.controller;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -12,9 +14,11 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.techacademy.constants.ErrorKinds;
 import com.techacademy.constants.ErrorMessage;
+import com.techacademy.dto.EmployeeListItem;
 
 import com.techacademy.entity.Employee;
 import com.techacademy.service.EmployeeService;
@@ -35,15 +39,25 @@ public class EmployeeController {
     @GetMapping
     public String list(Model model) {
 
-        model.addAttribute("listSize", employeeService.findAll().size());
-        model.addAttribute("employeeList", employeeService.findAll());
+        List<EmployeeListItem> employeeList = employeeService.findListItems();
+        model.addAttribute("listSize", employeeList.size());
+        model.addAttribute("employeeList", employeeList);
 
         return "employees/list";
     }
 
     // 従業員詳細画面
+    // 更新日時だけを検索し、ブラウザのキャッシュが最新の場合は従業員を取得せずに304を返す
     @GetMapping(value = "/{code}/")
-    public String detail(@PathVariable String code, Model model) {
+    public String detail(@PathVariable String code, ServletWebRequest webRequest, Model model) {
+        if (ConditionalRequests.checkNotModified(webRequest, employeeService.findUpdatedAt(code))) {
+            return null;
+        }
+        return detail(code, model);
+    }
+
+    // 従業員詳細画面の表示
+    private String detail(String code, Model model) {
 
         model.addAttribute("employee", employeeService.findByCode(code));
         return "employees/detail";
@@ -80,7 +94,7 @@ public class EmployeeController {
         }
 
         // 論理削除を行った従業員番号を指定すると例外となるためtry~catchで対応
-        // (findByIdでは削除フラグがTRUEのデータが取得出来ないため)
+        // (findByCodeでは削除フラグがTRUEのデータが取得出来ないため)
         try {
             ErrorKinds result = employeeService.save(employee);
 
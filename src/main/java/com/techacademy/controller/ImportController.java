@@ -0,0 +1,57 @@
+package com.techacademy.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.techacademy.dto.ImportResult;
+import com.techacademy.service.ImportService;
+
+@Controller
+@RequestMapping("imports")
+public class ImportController {
+
+    private final ImportService importService;
+
+    @Autowired
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    // 一括登録画面
+    @GetMapping
+    public String index() {
+        return "imports/import";
+    }
+
+    // 従業員一括登録処理
+    @PostMapping(value = "/employees")
+    public String importEmployees(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            ImportResult result = importService.importEmployees(inputStream);
+            model.addAttribute("target", "従業員");
+            model.addAttribute("result", result);
+        }
+        return "imports/import";
+    }
+
+    // 日報一括登録処理
+    @PostMapping(value = "/reports")
+    public String importReports(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            ImportResult result = importService.importReports(inputStream);
+            model.addAttribute("target", "日報");
+            model.addAttribute("result", result);
+        }
+        return "imports/import";
+    }
+
+}
@@ -1,6 +1,18 @@
 package com.techacademy.controller;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -11,9 +23,14 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.techacademy.constants.ErrorKinds;
 import com.techacademy.constants.ErrorMessage;
+import com.techacademy.dto.ReportPage;
+import com.techacademy.dto.ReportSearchPage;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Report;
 import com.techacademy.service.EmployeeService;
@@ -34,16 +51,57 @@ public class ReportController {
     }
 
     // 日報一覧画面
+    // date・idはページングのカーソル、dirが"prev"の場合は前のページを表示する
     @GetMapping
-    public String list(Model model) {
-        model.addAttribute("reportList", reportService.findAll());
-        model.addAttribute("listSize", reportService.findAll().size());
+    public String list(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
+            @RequestParam(required = false) Integer id, @RequestParam(required = false) String dir, Model model) {
+        ReportPage page = reportService.findPage(date, id, "prev".equals(dir));
+        model.addAttribute("reportList", page.reportList());
+        model.addAttribute("page", page);
+        model.addAttribute("listSize", reportService.count());
         return "reports/list";
     }
 
+    // 日報検索画面(タイトル・内容のキーワード検索、空白区切りはAND)
+    @GetMapping(value = "/search")
+    public String search(@RequestParam(required = false, name = "q") String keyword,
+            @RequestParam(defaultValue = "0") int page, Model model) {
+        ReportSearchPage result = reportService.search(keyword, page);
+        model.addAttribute("reportList", result.reportList());
+        model.addAttribute("result", result);
+        return "reports/search";
+    }
+
+    // 日報CSV出力(期間・社員番号で絞り込み)
+    // 書き出しは非同期スレッドで行い、リクエストスレッドは出力開始後すぐに解放する
+    @GetMapping(value = "/export.csv")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+            @RequestParam(required = false, name = "employee") String employee) {
+        String employeeCode = employee == null || employee.isEmpty() ? null : employee;
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            // Excelで文字化けしないようBOMを付ける
+            writer.write('\uFEFF');
+            reportService.exportCsv(from, to, employeeCode, writer);
+        };
+
+        return ResponseEntity.ok().contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("reports.csv").build().toString())
+                .body(body);
+    }
+
  // 日報詳細画面
+    // 更新日時だけを検索し、ブラウザのキャッシュが最新の場合は日報を取得せずに304を返す
     @GetMapping(value = "/{id}/")
-    public String detail(@PathVariable Integer id, @AuthenticationPrincipal UserDetail userDetail, Model model) {
+    public String detail(@PathVariable Integer id, @AuthenticationPrincipal UserDetail userDetail,
+            ServletWebRequest webRequest, Model model) {
+        if (ConditionalRequests.checkNotModified(webRequest, reportService.findLastModified(id))) {
+            return null;
+        }
+
         // IDで日報を検索
         Report report = reportService.findById(id);
         model.addAttribute("report", report);
@@ -56,13 +114,11 @@ public class ReportController {
  // 日報新規登録画面
     @GetMapping(value = "/add")
     public String create(@ModelAttribute Report report, @AuthenticationPrincipal UserDetail userDetail, Model model) {
-        // 現在のユーザーの従業員情報を取得
-        Employee employee = userDetail.getEmployee();
-        // データベースから最新の従業員情報を取得
-        Employee updatedEmployee = employeeService.findByCode(employee.getCode());
+        // 最新の従業員情報を取得(キャッシュにあればデータベースにはアクセスしない)
+        Employee employee = currentEmployee(userDetail);
 
-        // updatedEmployeeをモデルに追加
-        model.addAttribute("employee", updatedEmployee);
+        // employeeをモデルに追加
+        model.addAttribute("employee", employee);
         model.addAttribute("report", report);
 
         return "reports/new";
@@ -78,17 +134,10 @@ public class ReportController {
             return create(report, userDetail, model);
         }
 
-        Employee employee = userDetail.getEmployee();
-        report.setEmployee(employee);
+        // セッションの認証情報ではなく最新の従業員を設定する
+        report.setEmployee(currentEmployee(userDetail));
 
-        // 日報の存在チェック
-        ErrorKinds existsCheckResult = reportService.checkReportExists(employee, report.getReportDate());
-        if (existsCheckResult != ErrorKinds.SUCCESS) {
-            model.addAttribute("errorMessage", ErrorMessage.getErrorValue(existsCheckResult));
-            return create(report, userDetail, model);
-        }
-
-        // 日報を保存
+        // 日報を保存(同じ日付の日報が登録済みの場合はDATECHECK_ERRORが返る)
         ErrorKinds result = reportService.save(report);
         if (result != ErrorKinds.SUCCESS) {
             model.addAttribute("errorMessage", ErrorMessage.getErrorValue(result));
@@ -98,6 +147,15 @@ public class ReportController {
         return "redirect:/reports";
     }
 
+    // ログイン中の従業員(削除済みの場合は日報を登録できない)
+    private Employee currentEmployee(UserDetail userDetail) {
+        Employee employee = employeeService.findCurrent(userDetail);
+        if (employee == null) {
+            throw new AccessDeniedException("Employee has been deleted: " + userDetail.getCode());
+        }
+        return employee;
+    }
+
     // 日報更新画面
     @GetMapping(value = "/{id}/update")
     public String update(@PathVariable Integer id, Model model) {
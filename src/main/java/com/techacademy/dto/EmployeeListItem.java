@@ -0,0 +1,5 @@
+package com.techacademy.dto;
+
+// 従業員一覧の1行分(パスワード・日報を読み込まない読み取り専用の射影)
+public record EmployeeListItem(String code, String name) {
+}
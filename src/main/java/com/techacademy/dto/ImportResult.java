@@ -0,0 +1,16 @@
+package com.techacademy.dto;
+
+import java.util.List;
+
+// 一括登録の結果(対象行数・登録件数・行ごとのエラー・処理時間)
+public record ImportResult(int total, int imported, List<ImportError> errors, long elapsedMillis) {
+
+    // 1行のエラー(行番号はヘッダ行を1行目とした番号)
+    public record ImportError(int line, String message) {
+    }
+
+    // 1秒あたりの登録件数(エラー・重複の行は含まない)
+    public long importedPerSecond() {
+        return elapsedMillis == 0 ? imported * 1000L : imported * 1000L / elapsedMillis;
+    }
+}
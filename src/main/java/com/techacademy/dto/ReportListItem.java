@@ -0,0 +1,7 @@
+package com.techacademy.dto;
+
+import java.time.LocalDate;
+
+// 日報一覧の1行分(内容・従業員エンティティを読み込まない読み取り専用の射影)
+public record ReportListItem(Integer id, LocalDate reportDate, String title, String employeeName) {
+}
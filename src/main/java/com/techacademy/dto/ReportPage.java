@@ -0,0 +1,20 @@
+package com.techacademy.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// 日報一覧の1ページ分(キーセットページング)
+// 前後ページが無い場合はカーソル(日付・ID)がnullになる
+public record ReportPage(List<ReportListItem> reportList, LocalDate prevDate, Integer prevId, LocalDate nextDate,
+        Integer nextId) {
+
+    // 前のページが存在するか
+    public boolean hasPrev() {
+        return prevId != null;
+    }
+
+    // 次のページが存在するか
+    public boolean hasNext() {
+        return nextId != null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.techacademy.dto;
+
+import java.util.List;
+
+// 日報検索結果の1ページ分(pageは0始まり)
+public record ReportSearchPage(String keyword, List<ReportListItem> reportList, int page, int total, int pageSize) {
+
+    // 前のページが存在するか
+    public boolean hasPrev() {
+        return page > 0;
+    }
+
+    // 次のページが存在するか
+    public boolean hasNext() {
+        return (long) (page + 1) * pageSize < total;
+    }
+}
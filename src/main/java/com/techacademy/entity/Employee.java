@@ -14,17 +14,32 @@ import jakarta.persistence.OneToMany;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.validator.constraints.Length;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
 @Entity
 @Table(name = "employees")
 @SQLRestriction("delete_flg = false")
+// 第2レベルキャッシュ(エンティティと、社員番号からIDへの対応)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Employee.CACHE_REGION)
+@NaturalIdCache(region = Employee.NATURAL_ID_CACHE_REGION)
 public class Employee {
+    // 第2レベルキャッシュのリージョン名(エンティティ、社員番号からIDへの対応、検索結果)
+    public static final String CACHE_REGION = "employees";
+    public static final String NATURAL_ID_CACHE_REGION = "employee-codes";
+    public static final String QUERY_CACHE_REGION = "employee-queries";
+
 
     public static enum Role {
         GENERAL("一般"), ADMIN("管理者");
@@ -45,7 +60,8 @@ public class Employee {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
-    // 社員番号
+    // 社員番号(登録後は変更しない)
+    @NaturalId
     @Column(length = 10, unique = true, nullable = false)
     @NotEmpty
     @Length(max = 10)
@@ -79,7 +95,10 @@ public class Employee {
     private LocalDateTime updatedAt;
 
     // Reportとのリレーション
-    @OneToMany(mappedBy = "employee", cascade = CascadeType.ALL)
+    // 参照時に日報履歴全件を読み込まないよう遅延読み込みとし、toString・equals・hashCodeの対象外にする
+    @OneToMany(mappedBy = "employee", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Report> reportList;
 
     // getIdメソッドを自動生成
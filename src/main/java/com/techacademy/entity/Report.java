@@ -9,22 +9,33 @@ import org.springframework.format.annotation.DateTimeFormat;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 
 @Data
 @Entity
-@Table(name = "reports")
+// 一覧のキーセットページング(日付・IDの降順)用インデックス
+// 同一従業員・同一日付の日報は削除されていないものに限り1件まで(一意制約)
+@Table(name = "reports", indexes = @Index(name = "idx_reports_delete_flg_report_date_id", columnList = "delete_flg, report_date, id"),
+        uniqueConstraints = @UniqueConstraint(name = Report.UNIQUE_EMPLOYEE_REPORT_DATE, columnNames = { "employee_code", "report_date", "active_flg" }))
 @SQLRestriction("delete_flg = false")
 public class Report {
 
+    // 従業員・日付の一意制約名
+    public static final String UNIQUE_EMPLOYEE_REPORT_DATE = "uk_reports_employee_code_report_date";
+
     // ID（主キー、自動生成）
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -50,7 +61,8 @@ public class Report {
     private String content;
 
     // 社員番号（外部キー）
-    @ManyToOne
+    // 取得が必要な場合はリポジトリ側のEntityGraphで結合して読み込む
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_code", referencedColumnName = "code", nullable = false)
     private Employee employee;
 
@@ -58,6 +70,12 @@ public class Report {
     @Column(name = "delete_flg", nullable = false)
     private Boolean deleteFlg;
 
+    // 有効フラグ(削除フラグから生成される列。削除されていない日報は1、削除済みはNULL)
+    // 一意制約はNULLを重複とみなさないため、削除済みの日報は制約の対象外になる
+    @Column(name = "active_flg", insertable = false, updatable = false, columnDefinition = "TINYINT GENERATED ALWAYS AS (CASE WHEN delete_flg = false THEN 1 END)")
+    @Setter(AccessLevel.NONE)
+    private Integer activeFlg;
+
     // 登録日時
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,13 @@
+package com.techacademy.repository;
+
+import java.util.Optional;
+
+import com.techacademy.entity.Employee;
+
+// 社員番号(ナチュラルID)による従業員の検索
+public interface EmployeeNaturalIdRepository {
+
+    // 有効な従業員(存在しない・論理削除済みの場合は空)
+    // 社員番号からIDへの対応とエンティティは第2レベルキャッシュから取得し、キャッシュにない場合のみDBを検索する
+    Optional<Employee> findByCode(String code);
+}
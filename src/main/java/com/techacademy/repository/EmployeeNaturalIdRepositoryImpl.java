@@ -0,0 +1,23 @@
+package com.techacademy.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+
+import com.techacademy.entity.Employee;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+class EmployeeNaturalIdRepositoryImpl implements EmployeeNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Employee> findByCode(String code) {
+        // キャッシュから取得したエンティティには@SQLRestriction(delete_flg = false)が適用されないため、削除フラグを確認する
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Employee.class).loadOptional(code)
+                .filter(employee -> !employee.isDeleteFlg());
+    }
+}
@@ -1,8 +1,58 @@
 package com.techacademy.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.techacademy.dto.EmployeeListItem;
 import com.techacademy.entity.Employee;
 
-public interface EmployeeRepository extends JpaRepository<Employee, String> {
-}
\ No newline at end of file
+import jakarta.persistence.QueryHint;
+
+// 主キーは自動採番のID、社員番号での検索はEmployeeNaturalIdRepositoryのfindByCodeで行う
+public interface EmployeeRepository extends JpaRepository<Employee, Integer>, EmployeeNaturalIdRepository {
+
+    // 一覧・詳細画面の検索結果は第2レベルキャッシュに保存する
+    // (従業員をHibernate経由で登録・更新・削除した場合はコミット時に無効化される。JDBCで直接変更した場合はEmployeeService.evictQueryCacheで無効化する)
+
+    // 従業員一覧
+    @Override
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION) })
+    List<Employee> findAll();
+
+    // 従業員一覧(社員番号と氏名のみ)
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION) })
+    @Query("SELECT new com.techacademy.dto.EmployeeListItem(e.code, e.name) FROM Employee e ORDER BY e.id")
+    List<EmployeeListItem> findListItems();
+
+    // 詳細画面の更新判定用 更新日時
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION) })
+    @Query("SELECT e.updatedAt FROM Employee e WHERE e.code = :code")
+    Optional<LocalDateTime> findUpdatedAtByCode(@Param("code") String code);
+
+    // ログイン時の認証情報の取得用 有効な従業員
+    // 第2レベルキャッシュはサーバーごとのため参照せずDBから取得する(他のサーバーで変更したパスワード・削除した従業員でログインできないようにする)
+    // 取得した内容でこのサーバーのキャッシュは更新する
+    // 読み取り専用トランザクションで呼び出すとレプリカから取得するため、最新の状態にはレプリカの遅延分遅れる(UserDetailServiceは読み書き可能なトランザクションで呼び出す)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    @Query("SELECT e FROM Employee e WHERE e.code = :code")
+    Optional<Employee> findForLoginByCode(@Param("code") String code);
+
+    // 登録済みの社員番号(論理削除済みを含む)
+    @Query(value = "SELECT code FROM employees WHERE code IN (:codes)", nativeQuery = true)
+    List<String> findRegisteredCodes(@Param("codes") Collection<String> codes);
+
+    // 有効な従業員の社員番号
+    @Query("SELECT e.code FROM Employee e WHERE e.code IN :codes")
+    List<String> findActiveCodes(@Param("codes") Collection<String> codes);
+}
@@ -1,16 +1,82 @@
 package com.techacademy.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+
+import com.techacademy.dto.ReportListItem;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Report;
 
+// 日報を返す検索は従業員を同一SQLで結合して取得する(従業員ごとの追加SELECTを発生させない)
 public interface ReportRepository extends JpaRepository<Report, Integer> {
+    @EntityGraph(attributePaths = "employee")
     Optional<Report> findByEmployeeAndReportDateAndDeleteFlgFalse(Employee employee, LocalDate reportDate);
+    @EntityGraph(attributePaths = "employee")
     List<Report> findByDeleteFlgFalse();
+    @EntityGraph(attributePaths = "employee")
     List<Report> findByEmployee(Employee employee);
+
+    @Override
+    @EntityGraph(attributePaths = "employee")
+    Optional<Report> findById(Integer id);
+
+    // 詳細画面の更新判定用 日報と従業員(画面に表示する氏名)の更新日時の新しい方
+    @Query("SELECT CASE WHEN r.updatedAt > e.updatedAt THEN r.updatedAt ELSE e.updatedAt END FROM Report r JOIN r.employee e WHERE r.id = :id")
+    Optional<LocalDateTime> findLastModifiedById(@Param("id") Integer id);
+
+    // 日報一覧の先頭ページ(日付の新しい順、同日はIDの大きい順)
+    @Query("SELECT new com.techacademy.dto.ReportListItem(r.id, r.reportDate, r.title, e.name) FROM Report r JOIN r.employee e ORDER BY r.reportDate DESC, r.id DESC")
+    List<ReportListItem> findFirstPage(Limit limit);
+
+    // 指定した日報より後ろ(古い側)のページ
+    @Query("SELECT new com.techacademy.dto.ReportListItem(r.id, r.reportDate, r.title, e.name) FROM Report r JOIN r.employee e WHERE r.reportDate < :reportDate OR (r.reportDate = :reportDate AND r.id < :id) ORDER BY r.reportDate DESC, r.id DESC")
+    List<ReportListItem> findNextPage(@Param("reportDate") LocalDate reportDate, @Param("id") Integer id, Limit limit);
+
+    // 指定した日報より前(新しい側)のページ ※昇順で取得されるため呼び出し側で並べ替える
+    @Query("SELECT new com.techacademy.dto.ReportListItem(r.id, r.reportDate, r.title, e.name) FROM Report r JOIN r.employee e WHERE r.reportDate > :reportDate OR (r.reportDate = :reportDate AND r.id > :id) ORDER BY r.reportDate ASC, r.id ASC")
+    List<ReportListItem> findPrevPage(@Param("reportDate") LocalDate reportDate, @Param("id") Integer id, Limit limit);
+
+    // 従業員に紐づく日報を一括で論理削除(件数に関わらずUPDATE文1回で完了する)
+    // 実行前に未反映の変更をフラッシュし、実行後は読み込み済みの日報が残らないよう永続化コンテキストをクリアする
+    // 更新するテーブルを指定し、第2レベルキャッシュの無効化をreportsテーブルに限定する(指定しない場合は全リージョンが破棄される)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reports"))
+    @Query(value = "UPDATE reports SET delete_flg = true, updated_at = :updatedAt WHERE employee_code = :employeeCode AND delete_flg = false", nativeQuery = true)
+    int softDeleteByEmployeeCode(@Param("employeeCode") String employeeCode, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // CSV出力用(期間・社員番号はnullの場合は絞り込まない)
+    // 全件をメモリに載せないよう前方向のみのストリームで取得し、フェッチサイズ単位でDBから読み込む
+    // (MySQLでフェッチサイズを有効にするには接続URLにuseCursorFetch=trueが必要)
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT r FROM Report r JOIN FETCH r.employee e WHERE (:from IS NULL OR r.reportDate >= :from) AND (:to IS NULL OR r.reportDate <= :to) AND (:employeeCode IS NULL OR e.code = :employeeCode) ORDER BY r.reportDate, r.id")
+    Stream<Report> streamForExport(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("employeeCode") String employeeCode);
+
+    // 一括登録の重複チェック用 指定した社員番号・日付の組み合わせを含む登録済み日報の社員番号と日付
+    @Query("SELECT e.code, r.reportDate FROM Report r JOIN r.employee e WHERE e.code IN :codes AND r.reportDate IN :reportDates")
+    List<Object[]> findRegisteredCodeAndDates(@Param("codes") Collection<String> codes, @Param("reportDates") Collection<LocalDate> reportDates);
+
+    // 全文検索インデックスの構築用 削除されていない日報のID・日付・社員番号・タイトル・内容
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT r.id, r.reportDate, e.code, r.title, r.content FROM Report r JOIN r.employee e")
+    Stream<Object[]> streamForIndex();
+
+    // 全文検索のヒットした日報(並び順は呼び出し側で検索結果に合わせる)
+    @Query("SELECT new com.techacademy.dto.ReportListItem(r.id, r.reportDate, r.title, e.name) FROM Report r JOIN r.employee e WHERE r.id IN :ids")
+    List<ReportListItem> findListItemsByIdIn(@Param("ids") Collection<Integer> ids);
 }
\ No newline at end of file
@@ -3,35 +3,52 @@ package com.techacademy.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+import org.hibernate.Cache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.techacademy.constants.ErrorKinds;
+import com.techacademy.dto.EmployeeListItem;
 import com.techacademy.entity.Employee;
-import com.techacademy.entity.Report;
 import com.techacademy.repository.EmployeeRepository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+
+// 各メソッドの所要時間をapp.serviceメトリクス(class・methodタグ付き)として記録する
 @Service
+@Timed("app.service")
 public class EmployeeService {
+    // ログイン中の従業員のエンティティのキャッシュ名(従業員の登録・更新・削除時に全件破棄する)
+    public static final String CURRENT_CACHE_NAME = "currentEmployees";
 
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
     private final ReportService reportService;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Autowired
-    public EmployeeService(EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder,ReportService reportService) {
+    public EmployeeService(EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder,ReportService reportService,
+            EntityManagerFactory entityManagerFactory) {
         this.employeeRepository = employeeRepository;
         this.passwordEncoder = passwordEncoder;
         this.reportService = reportService;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
+    // 第2レベルキャッシュ(エンティティ・社員番号・検索結果)は、登録・更新・削除のコミット時にHibernateが更新・無効化する
+
     // 従業員保存
     @Transactional
+    @CacheEvict(cacheNames = UserDetailService.CACHE_NAME, key = "#employee.code")
     public ErrorKinds save(Employee employee) {
 
         // パスワードチェック
@@ -57,6 +74,8 @@ public class EmployeeService {
 
  // 従業員更新
     @Transactional
+    @Caching(evict = { @CacheEvict(cacheNames = UserDetailService.CACHE_NAME, key = "#code"),
+            @CacheEvict(cacheNames = CURRENT_CACHE_NAME, allEntries = true) })
     public ErrorKinds update(String code, Employee employee) {
         Employee existingEmployee = findByCode(code);
         if (existingEmployee == null) {
@@ -97,10 +116,12 @@ public class EmployeeService {
 
     // 従業員削除
     @Transactional
+    @Caching(evict = { @CacheEvict(cacheNames = UserDetailService.CACHE_NAME, key = "#code"),
+            @CacheEvict(cacheNames = CURRENT_CACHE_NAME, allEntries = true) })
     public ErrorKinds delete(String code, UserDetail userDetail) {
 
         // 自分を削除しようとした場合はエラーメッセージを表示
-        if (code.equals(userDetail.getEmployee().getCode())) {
+        if (code.equals(userDetail.getCode())) {
             return ErrorKinds.LOGINCHECK_ERROR;
         }
         Employee employee = findByCode(code);
@@ -112,41 +133,75 @@ public class EmployeeService {
         employee.setUpdatedAt(now);
         employee.setDeleteFlg(true);
 
-        // 削除対象の従業員に紐づいている日報を削除
-        List<Report> reportList = reportService.findByEmployee(employee);
-        for (Report report : reportList) {
-            reportService.delete(report);
-        }
-
         employeeRepository.save(employee);
+        evictAfterCommit(employee);
+
+        // 削除対象の従業員に紐づいている日報を一括削除
+        reportService.deleteByEmployee(employee);
         return ErrorKinds.SUCCESS;
     }
 
+    // 論理削除した従業員をコミット後に第2レベルキャッシュから破棄する
+    // (キャッシュからの読み込みには@SQLRestrictionが適用されないため、削除済みの従業員をキャッシュに残さない)
+    private void evictAfterCommit(Employee employee) {
+        Integer id = employee.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(Employee.class, id);
+            }
+        });
+    }
+
+    // 一覧などの検索結果のキャッシュを破棄する(CSV一括登録などJDBCで直接変更した場合に使用する)
+    public void evictQueryCache() {
+        entityManagerFactory.getCache().unwrap(Cache.class).evictQueryRegion(Employee.QUERY_CACHE_REGION);
+    }
+
     // 従業員一覧表示処理
+    @Transactional(readOnly = true)
     public List<Employee> findAll() {
         return employeeRepository.findAll();
     }
 
+    // 従業員一覧画面用の表示項目のみを取得
+    @Transactional(readOnly = true)
+    public List<EmployeeListItem> findListItems() {
+        return employeeRepository.findListItems();
+    }
+
     // 1件を検索
+    @Transactional(readOnly = true)
     public Employee findByCode(String code) {
-        // findByIdで検索
-        Optional<Employee> option = employeeRepository.findById(code);
+        // 社員番号(ナチュラルID)で検索
+        Optional<Employee> option = employeeRepository.findByCode(code);
         // 取得できなかった場合はnullを返す
         Employee employee = option.orElse(null);
         return employee;
     }
 
+    // ログイン中の従業員の最新のエンティティ(削除済みの場合はnull)
+    // 認証情報の社員番号と版ごとにキャッシュする(版が新しい認証情報では他のサーバーで更新された従業員も再取得される)
+    // 日報の登録などで従業員を参照するためのもので、取得したエンティティは変更しないこと
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CURRENT_CACHE_NAME, key = "#userDetail.code + '@' + #userDetail.updatedAt", unless = "#result == null")
+    public Employee findCurrent(UserDetail userDetail) {
+        return employeeRepository.findByCode(userDetail.getCode()).orElse(null);
+    }
+
+    // 更新日時を検索(存在しない場合はnull)
+    @Transactional(readOnly = true)
+    public LocalDateTime findUpdatedAt(String code) {
+        return employeeRepository.findUpdatedAtByCode(code).orElse(null);
+    }
+
     // 従業員パスワードチェック
     private ErrorKinds employeePasswordCheck(Employee employee) {
 
-        // 従業員パスワードの半角英数字チェック処理
-        if (isHalfSizeCheckError(employee)) {
-            return ErrorKinds.HALFSIZE_ERROR;
-        }
-
-        // 従業員パスワードの8文字～16文字チェック処理
-        if (isOutOfRangePassword(employee)) {
-            return ErrorKinds.RANGECHECK_ERROR;
+        // 入力チェック
+        ErrorKinds result = checkPassword(employee);
+        if (ErrorKinds.CHECK_OK != result) {
+            return result;
         }
 
         // パスワード暗号化
@@ -155,21 +210,9 @@ public class EmployeeService {
         return ErrorKinds.CHECK_OK;
     }
 
-    // 従業員パスワードの半角英数字チェック処理
-    private boolean isHalfSizeCheckError(Employee employee) {
-
-        // 半角英数字チェック
-        Pattern pattern = Pattern.compile("^[A-Za-z0-9]+$");
-        Matcher matcher = pattern.matcher(employee.getPassword());
-        return !matcher.matches();
-    }
-
-    // 従業員パスワードの8文字～16文字チェック処理
-    public boolean isOutOfRangePassword(Employee employee) {
-
-        // 桁数チェック
-        int passwordLength = employee.getPassword().length();
-        return passwordLength < 8 || 16 < passwordLength;
+    // 従業員パスワードの入力チェック(暗号化は行わない)
+    public ErrorKinds checkPassword(Employee employee) {
+        return InputValidator.checkPassword(employee.getPassword());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,340 @@
+package com.techacademy.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.ExecutorPasswordEncoder;
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.constants.ErrorMessage;
+import com.techacademy.dto.ImportResult;
+import com.techacademy.dto.ImportResult.ImportError;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Report;
+import com.techacademy.repository.EmployeeRepository;
+import com.techacademy.repository.ReportRepository;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// 従業員・日報のCSV一括登録
+// 入力チェックは画面からの登録と同じルールで行い、チェックOKの行のみをJDBCのバッチINSERTで登録する
+// (JPAのsaveはIDENTITY採番のため1件ずつINSERTされるので使用しない)
+@Service
+public class ImportService {
+
+    // 1回のバッチ(1トランザクション)で登録する件数
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_EMPLOYEE = "INSERT INTO employees (code, name, role, password, delete_flg, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_REPORT = "INSERT INTO reports (report_date, title, content, employee_code, delete_flg, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final EmployeeService employeeService;
+    private final ReportService reportService;
+    private final EmployeeRepository employeeRepository;
+    private final ReportRepository reportRepository;
+    private final ExecutorPasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReportSearchIndex reportSearchIndex;
+
+    @Autowired
+    public ImportService(EmployeeService employeeService, ReportService reportService,
+            EmployeeRepository employeeRepository, ReportRepository reportRepository,
+            ExecutorPasswordEncoder passwordEncoder, Validator validator, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, ReportSearchIndex reportSearchIndex) {
+        this.employeeService = employeeService;
+        this.reportService = reportService;
+        this.employeeRepository = employeeRepository;
+        this.reportRepository = reportRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reportSearchIndex = reportSearchIndex;
+    }
+
+    // 従業員一括登録(社員番号,氏名,権限,パスワード)
+    public ImportResult importEmployees(InputStream inputStream) throws IOException {
+        long start = System.currentTimeMillis();
+        List<ImportError> errors = new ArrayList<ImportError>();
+        Set<String> codesInFile = new HashSet<String>();
+        int total = 0;
+        int imported = 0;
+
+        try (BufferedReader reader = openReader(inputStream)) {
+            // ヘッダ行を読み飛ばす
+            Csv.readRecord(reader);
+            int line = 1;
+
+            List<Employee> chunk = new ArrayList<Employee>();
+            List<Integer> chunkLines = new ArrayList<Integer>();
+            List<String> record;
+            while ((record = Csv.readRecord(reader)) != null) {
+                line++;
+                if (isBlank(record)) {
+                    continue;
+                }
+                total++;
+
+                Employee employee = new Employee();
+                employee.setCode(field(record, 0));
+                employee.setName(field(record, 1));
+                employee.setPassword(field(record, 3));
+                String error = validateEmployee(employee, field(record, 2), codesInFile);
+                if (error != null) {
+                    errors.add(new ImportError(line, error));
+                    continue;
+                }
+
+                chunk.add(employee);
+                chunkLines.add(line);
+                if (chunk.size() == BATCH_SIZE) {
+                    imported += insertEmployees(chunk, chunkLines, errors);
+                    chunk.clear();
+                    chunkLines.clear();
+                }
+            }
+            imported += insertEmployees(chunk, chunkLines, errors);
+        }
+
+        // JDBCで登録した従業員を一覧に反映する
+        if (imported > 0) {
+            employeeService.evictQueryCache();
+        }
+        return new ImportResult(total, imported, errors, System.currentTimeMillis() - start);
+    }
+
+    // 日報一括登録(社員番号,日付,タイトル,内容)
+    public ImportResult importReports(InputStream inputStream) throws IOException {
+        long start = System.currentTimeMillis();
+        List<ImportError> errors = new ArrayList<ImportError>();
+        Set<String> keysInFile = new HashSet<String>();
+        int total = 0;
+        int imported = 0;
+
+        try (BufferedReader reader = openReader(inputStream)) {
+            // ヘッダ行を読み飛ばす
+            Csv.readRecord(reader);
+            int line = 1;
+
+            List<Report> chunk = new ArrayList<Report>();
+            List<Integer> chunkLines = new ArrayList<Integer>();
+            List<String> record;
+            while ((record = Csv.readRecord(reader)) != null) {
+                line++;
+                if (isBlank(record)) {
+                    continue;
+                }
+                total++;
+
+                Report report = new Report();
+                Employee employee = new Employee();
+                employee.setCode(field(record, 0));
+                report.setEmployee(employee);
+                report.setTitle(field(record, 2));
+                report.setContent(field(record, 3));
+                String error = validateReport(report, field(record, 1), keysInFile);
+                if (error != null) {
+                    errors.add(new ImportError(line, error));
+                    continue;
+                }
+
+                chunk.add(report);
+                chunkLines.add(line);
+                if (chunk.size() == BATCH_SIZE) {
+                    imported += insertReports(chunk, chunkLines, errors);
+                    chunk.clear();
+                    chunkLines.clear();
+                }
+            }
+            imported += insertReports(chunk, chunkLines, errors);
+        }
+
+        // JDBCで登録した日報は全文検索インデックスに反映されないため再構築する
+        if (imported > 0) {
+            reportSearchIndex.rebuild();
+        }
+
+        return new ImportResult(total, imported, errors, System.currentTimeMillis() - start);
+    }
+
+    // 従業員1行分の入力チェック(エラーがない場合はnullを返す)
+    private String validateEmployee(Employee employee, String role, Set<String> codesInFile) {
+        for (ConstraintViolation<Employee> violation : validator.validate(employee)) {
+            return violation.getPropertyPath() + ": " + violation.getMessage();
+        }
+
+        // 権限(ADMIN/GENERAL または 管理者/一般)
+        for (Employee.Role value : Employee.Role.values()) {
+            if (value.name().equals(role) || value.getValue().equals(role)) {
+                employee.setRole(value);
+            }
+        }
+        if (employee.getRole() == null) {
+            return "role: 権限はADMINまたはGENERALを指定してください";
+        }
+
+        // パスワードチェック
+        ErrorKinds result = employeeService.checkPassword(employee);
+        if (result != ErrorKinds.CHECK_OK) {
+            return ErrorMessage.getErrorValue(result);
+        }
+
+        // ファイル内の社員番号重複チェック(登録済みの社員番号はバッチ登録前にまとめてチェックする)
+        if (!codesInFile.add(employee.getCode())) {
+            return ErrorMessage.getErrorValue(ErrorKinds.DUPLICATE_ERROR);
+        }
+        return null;
+    }
+
+    // 日報1行分の入力チェック(エラーがない場合はnullを返す)
+    private String validateReport(Report report, String reportDate, Set<String> keysInFile) {
+        if (report.getEmployee().getCode().isEmpty()) {
+            return "code: " + ErrorMessage.getErrorValue(ErrorKinds.BLANK_ERROR);
+        }
+        if (!reportDate.isEmpty()) {
+            try {
+                report.setReportDate(LocalDate.parse(reportDate));
+            } catch (DateTimeParseException e) {
+                return "reportDate: 日付はyyyy-MM-dd形式で入力してください";
+            }
+        }
+
+        ErrorKinds result = reportService.validateReport(report);
+        if (result != ErrorKinds.SUCCESS) {
+            return ErrorMessage.getErrorValue(result);
+        }
+
+        // ファイル内の日付重複チェック(登録済みの日報はバッチ登録前にまとめてチェックする)
+        if (!keysInFile.add(report.getEmployee().getCode() + "\t" + report.getReportDate())) {
+            return ErrorMessage.getErrorValue(ErrorKinds.DATECHECK_ERROR);
+        }
+        return null;
+    }
+
+    // 従業員のバッチ登録(登録件数を返す)
+    private int insertEmployees(List<Employee> chunk, List<Integer> lines, List<ImportError> errors) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        // 登録済みの社員番号を1回の検索でチェック
+        Set<String> registered = new HashSet<String>(
+                employeeRepository.findRegisteredCodes(chunk.stream().map(Employee::getCode).toList()));
+
+        // パスワードのハッシュ化を専用スレッドで並列に実行
+        List<Employee> targets = new ArrayList<Employee>();
+        List<CompletableFuture<String>> passwords = new ArrayList<CompletableFuture<String>>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Employee employee = chunk.get(i);
+            if (registered.contains(employee.getCode())) {
+                errors.add(new ImportError(lines.get(i), ErrorMessage.getErrorValue(ErrorKinds.DUPLICATE_ERROR)));
+                continue;
+            }
+            targets.add(employee);
+            passwords.add(passwordEncoder.encodeAsync(employee.getPassword()));
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<Object[]>();
+        for (int i = 0; i < targets.size(); i++) {
+            Employee employee = targets.get(i);
+            args.add(new Object[] { employee.getCode(), employee.getName(), employee.getRole().name(),
+                    passwords.get(i).join(), false, now, now });
+        }
+        return batchInsert(INSERT_EMPLOYEE, args, lines.get(0), errors);
+    }
+
+    // 日報のバッチ登録(登録件数を返す)
+    private int insertReports(List<Report> chunk, List<Integer> lines, List<ImportError> errors) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        // 従業員の存在チェックと登録済みの日付の重複チェックをそれぞれ1回の検索で行う
+        Set<String> codes = new HashSet<String>();
+        Set<LocalDate> reportDates = new HashSet<LocalDate>();
+        for (Report report : chunk) {
+            codes.add(report.getEmployee().getCode());
+            reportDates.add(report.getReportDate());
+        }
+        Set<String> activeCodes = new HashSet<String>(employeeRepository.findActiveCodes(codes));
+        Set<String> registered = new HashSet<String>();
+        for (Object[] row : reportRepository.findRegisteredCodeAndDates(codes, reportDates)) {
+            registered.add(row[0] + "\t" + row[1]);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<Object[]>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Report report = chunk.get(i);
+            String code = report.getEmployee().getCode();
+            if (!activeCodes.contains(code)) {
+                errors.add(new ImportError(lines.get(i), "code: 登録されていない社員番号です"));
+                continue;
+            }
+            if (registered.contains(code + "\t" + report.getReportDate())) {
+                errors.add(new ImportError(lines.get(i), ErrorMessage.getErrorValue(ErrorKinds.DATECHECK_ERROR)));
+                continue;
+            }
+            args.add(new Object[] { Date.valueOf(report.getReportDate()), report.getTitle(), report.getContent(), code,
+                    false, now, now });
+        }
+        return batchInsert(INSERT_REPORT, args, lines.get(0), errors);
+    }
+
+    // 1トランザクションでバッチINSERTを実行(失敗した場合はバッチ全体をエラーとする)
+    private int batchInsert(String sql, List<Object[]> args, int firstLine, List<ImportError> errors) {
+        if (args.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, args));
+            return args.size();
+        } catch (DataAccessException e) {
+            errors.add(new ImportError(firstLine, firstLine + "行目からのバッチ登録に失敗しました: " + e.getMostSpecificCause().getMessage()));
+            return 0;
+        }
+    }
+
+    // UTF-8(BOM付きを含む)で読み込む
+    private BufferedReader openReader(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        return reader;
+    }
+
+    // 空行かどうか
+    private boolean isBlank(List<String> record) {
+        return record.size() == 1 && record.get(0).isBlank();
+    }
+
+    // 指定した列の値(列が足りない場合は空文字)
+    private String field(List<String> record, int index) {
+        return index < record.size() ? record.get(index).strip() : "";
+    }
+}
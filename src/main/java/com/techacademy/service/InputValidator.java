@@ -0,0 +1,58 @@
+package com.techacademy.service;
+
+import java.util.regex.Pattern;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Report;
+
+// 入力チェック(DB・他のサービスを使わないもの)
+// サービス・一括登録・ベンチマークから共通で使う
+public final class InputValidator {
+
+    // 半角英数字
+    private static final Pattern HALF_SIZE = Pattern.compile("^[A-Za-z0-9]+$");
+
+    private InputValidator() {
+    }
+
+    // 従業員パスワードの入力チェック(暗号化は行わない)
+    public static ErrorKinds checkPassword(String password) {
+
+        // 従業員パスワードの空白チェック処理
+        if (password == null || password.isEmpty()) {
+            return ErrorKinds.BLANK_ERROR;
+        }
+
+        // 従業員パスワードの半角英数字チェック処理
+        if (!HALF_SIZE.matcher(password).matches()) {
+            return ErrorKinds.HALFSIZE_ERROR;
+        }
+
+        // 従業員パスワードの8文字～16文字チェック処理
+        if (password.length() < 8 || 16 < password.length()) {
+            return ErrorKinds.RANGECHECK_ERROR;
+        }
+
+        return ErrorKinds.CHECK_OK;
+    }
+
+    // 日報の入力チェック(日付・タイトル・内容)
+    public static ErrorKinds validateReport(Report report) {
+        if (report.getReportDate() == null) {
+            return ErrorKinds.BLANK_ERROR;
+        }
+        if (report.getTitle() == null || report.getTitle().isEmpty()) {
+            return ErrorKinds.BLANK_ERROR;
+        }
+        if (report.getTitle().length() > 100) {
+            return ErrorKinds.TITLE_LENGTH_ERROR;
+        }
+        if (report.getContent() == null || report.getContent().isEmpty()) {
+            return ErrorKinds.BLANK_ERROR;
+        }
+        if (report.getContent().length() > 600) {
+            return ErrorKinds.CONTENT_LENGTH_ERROR;
+        }
+        return ErrorKinds.SUCCESS;
+    }
+}
@@ -0,0 +1,258 @@
+package com.techacademy.service;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportRepository;
+
+// 日報のタイトル・内容の全文検索用インデックス(JVM内の転置インデックス)
+// 形態素解析を使わずに日本語を検索できるよう、空白で区切られた語の1文字とbi-gram(隣り合う2文字)を見出しにする
+// 検索語のすべてのbi-gramを含む日報をヒットとするため、bi-gramが離れた位置にある日報もヒットすることがある
+@Component
+public class ReportSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportSearchIndex.class);
+
+    // 再構築時に並列で分割処理する件数
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    // 並び順(日付の新しい順、同日はIDの大きい順 ※日報一覧と同じ)
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::reportDate)
+            .thenComparing(Entry::id).reversed();
+
+    private final ReportRepository reportRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // 現在のインデックス(再構築時は構築済みのものに差し替える)
+    private volatile Postings postings = new Postings();
+
+    // 再構築中に行われた更新(差し替え前に新しいインデックスにも反映する)
+    private List<Consumer<Postings>> pendingUpdates;
+
+    // 再構築の同時実行防止用(DBの読み込み中も保持するため、仮想スレッドをピン留めしないsynchronized以外のロックを使う)
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @Autowired
+    public ReportSearchIndex(ReportRepository reportRepository, PlatformTransactionManager transactionManager) {
+        this.reportRepository = reportRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // 起動時にインデックスを構築
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // 削除されていない全日報からインデックスを再構築
+    // DBからはフェッチサイズ単位で読み込み、分割した単位ごとに並列でbi-gramに分解して登録する
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            synchronized (this) {
+                pendingUpdates = new ArrayList<Consumer<Postings>>();
+            }
+
+            Postings rebuilt = new Postings();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<Object[]> stream = reportRepository.streamForIndex()) {
+                        List<Object[]> chunk = new ArrayList<Object[]>(REBUILD_CHUNK_SIZE);
+                        stream.forEach(row -> {
+                            chunk.add(row);
+                            if (chunk.size() == REBUILD_CHUNK_SIZE) {
+                                addAll(rebuilt, chunk);
+                                chunk.clear();
+                            }
+                        });
+                        addAll(rebuilt, chunk);
+                    }
+                });
+
+                synchronized (this) {
+                    pendingUpdates.forEach(update -> update.accept(rebuilt));
+                    postings = rebuilt;
+                }
+            } finally {
+                synchronized (this) {
+                    pendingUpdates = null;
+                }
+            }
+
+            logger.info("Report search index rebuilt: {} reports in {} ms", postings.entries.size(),
+                    System.currentTimeMillis() - start);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // 日報を登録・更新
+    public synchronized void put(Report report) {
+        Entry entry = new Entry(report.getId(), report.getReportDate(), report.getEmployee().getCode(),
+                indexTerms(report.getTitle() + " " + report.getContent()));
+        apply(p -> p.put(entry));
+    }
+
+    // 日報を削除
+    public synchronized void remove(Integer id) {
+        apply(p -> p.remove(id));
+    }
+
+    // 従業員の日報をすべて削除
+    public synchronized void removeByEmployee(String employeeCode) {
+        apply(p -> p.removeByEmployee(employeeCode));
+    }
+
+    // 検索語(空白区切りはAND)を含む日報のIDを並び順どおりに返す
+    public List<Integer> search(String keyword) {
+        Postings current = postings;
+        Set<String> grams = queryTerms(keyword);
+        if (grams.isEmpty()) {
+            return List.of();
+        }
+
+        // 件数の少ない見出しから順に絞り込む
+        List<Set<Integer>> lists = new ArrayList<Set<Integer>>();
+        for (String gram : grams) {
+            Set<Integer> ids = current.index.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Entry> hits = new ArrayList<Entry>();
+        for (Integer id : lists.get(0)) {
+            if (lists.stream().skip(1).allMatch(ids -> ids.contains(id))) {
+                Entry entry = current.entries.get(id);
+                if (entry != null) {
+                    hits.add(entry);
+                }
+            }
+        }
+        hits.sort(ORDER);
+        return hits.stream().map(Entry::id).toList();
+    }
+
+    // 登録件数
+    public int size() {
+        return postings.entries.size();
+    }
+
+    // 現在のインデックスに反映し、再構築中の場合は差し替え時にも反映する
+    private void apply(Consumer<Postings> update) {
+        update.accept(postings);
+        if (pendingUpdates != null) {
+            pendingUpdates.add(update);
+        }
+    }
+
+    // 分割した単位の日報を並列でインデックスに登録
+    private void addAll(Postings target, List<Object[]> rows) {
+        rows.parallelStream().forEach(row -> target.put(new Entry((Integer) row[0], (LocalDate) row[1],
+                (String) row[2], indexTerms(row[3] + " " + row[4]))));
+    }
+
+    // 登録用の見出し(語ごとの1文字とbi-gram)
+    static Set<String> indexTerms(String text) {
+        Set<String> terms = new HashSet<String>();
+        for (int[] word : words(text)) {
+            for (int i = 0; i < word.length; i++) {
+                terms.add(new String(word, i, 1));
+                if (i + 1 < word.length) {
+                    terms.add(new String(word, i, 2));
+                }
+            }
+        }
+        return terms;
+    }
+
+    // 検索用の見出し(1文字の語はその文字、2文字以上の語はbi-gram)
+    static Set<String> queryTerms(String keyword) {
+        Set<String> terms = new HashSet<String>();
+        for (int[] word : words(keyword)) {
+            if (word.length == 1) {
+                terms.add(new String(word, 0, 1));
+            }
+            for (int i = 0; i + 1 < word.length; i++) {
+                terms.add(new String(word, i, 2));
+            }
+        }
+        return terms;
+    }
+
+    // 正規化(全角英数・半角カナの統一、英字の小文字化)し、空白で区切った語ごとのコードポイント列に分解する
+    private static List<int[]> words(String text) {
+        List<int[]> words = new ArrayList<int[]>();
+        if (text == null) {
+            return words;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        for (String word : normalized.split("\\s+")) {
+            if (!word.isEmpty()) {
+                words.add(word.codePoints().toArray());
+            }
+        }
+        return words;
+    }
+
+    // 登録された日報(並べ替え・従業員単位の削除に使う項目と見出し)
+    private record Entry(Integer id, LocalDate reportDate, String employeeCode, Set<String> grams) {
+    }
+
+    // 見出しごとの日報IDと、日報IDごとの登録内容
+    private static class Postings {
+        private final Map<String, Set<Integer>> index = new ConcurrentHashMap<String, Set<Integer>>();
+        private final Map<Integer, Entry> entries = new ConcurrentHashMap<Integer, Entry>();
+
+        void put(Entry entry) {
+            remove(entry.id());
+            entries.put(entry.id(), entry);
+            for (String gram : entry.grams()) {
+                index.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(entry.id());
+            }
+        }
+
+        void remove(Integer id) {
+            Entry entry = entries.remove(id);
+            if (entry == null) {
+                return;
+            }
+            for (String gram : entry.grams()) {
+                index.computeIfPresent(gram, (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        void removeByEmployee(String employeeCode) {
+            entries.values().stream().filter(entry -> entry.employeeCode().equals(employeeCode)).map(Entry::id)
+                    .toList().forEach(this::remove);
+        }
+    }
+}
@@ -1,41 +1,170 @@
 package com.techacademy.service;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.techacademy.constants.ErrorKinds;
+import com.techacademy.dto.ReportListItem;
+import com.techacademy.dto.ReportPage;
+import com.techacademy.dto.ReportSearchPage;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Report;
 import com.techacademy.repository.ReportRepository;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+
+// 各メソッドの所要時間をapp.serviceメトリクス(class・methodタグ付き)として記録する
 @Service
+@Timed("app.service")
 public class ReportService {
 
+    // 日報一覧の1ページあたりの表示件数
+    public static final int PAGE_SIZE = 20;
+
+    // CSV出力のヘッダ行
+    private static final String CSV_HEADER = "日付,社員番号,氏名,タイトル,内容\r\n";
+
     private final ReportRepository reportRepository;
+    private final EntityManager entityManager;
+    private final ReportSearchIndex reportSearchIndex;
 
     @Autowired
-    public ReportService(ReportRepository reportRepository) {
+    public ReportService(ReportRepository reportRepository, EntityManager entityManager,
+            ReportSearchIndex reportSearchIndex) {
         this.reportRepository = reportRepository;
+        this.entityManager = entityManager;
+        this.reportSearchIndex = reportSearchIndex;
+    }
+
+    // 日報一覧のページ取得(日付の新しい順)
+    // cursorDate・cursorIdがnullの場合は先頭ページ、backwardがtrueの場合はカーソルより前のページを取得する
+    // 参照のみのメソッドは読み取り専用トランザクションで実行する
+    // (flushせず、読み込んだエンティティの変更を追跡しない。レプリカ構成時はレプリカから読み込む)
+    @Transactional(readOnly = true)
+    public ReportPage findPage(LocalDate cursorDate, Integer cursorId, boolean backward) {
+        boolean first = cursorDate == null || cursorId == null;
+        backward = backward && !first;
+
+        // 次ページの有無を判定するため1件多く取得する
+        Limit limit = Limit.of(PAGE_SIZE + 1);
+        List<ReportListItem> rows;
+        if (first) {
+            rows = reportRepository.findFirstPage(limit);
+        } else if (backward) {
+            rows = reportRepository.findPrevPage(cursorDate, cursorId, limit);
+        } else {
+            rows = reportRepository.findNextPage(cursorDate, cursorId, limit);
+        }
+
+        boolean more = rows.size() > PAGE_SIZE;
+        List<ReportListItem> reportList = new ArrayList<ReportListItem>(more ? rows.subList(0, PAGE_SIZE) : rows);
+        if (backward) {
+            Collections.reverse(reportList);
+        }
+        if (reportList.isEmpty()) {
+            return new ReportPage(reportList, null, null, null, null);
+        }
+
+        // 前へ戻った場合は次ページが必ず存在し、先へ進んだ場合は前ページが必ず存在する
+        boolean hasPrev = backward ? more : !first;
+        boolean hasNext = backward ? true : more;
+
+        ReportListItem head = reportList.get(0);
+        ReportListItem tail = reportList.get(reportList.size() - 1);
+        return new ReportPage(reportList, hasPrev ? head.reportDate() : null, hasPrev ? head.id() : null,
+                hasNext ? tail.reportDate() : null, hasNext ? tail.id() : null);
+    }
+
+    // 日報の全文検索(pageは0始まり)
+    // ヒットした日報のIDは全文検索インデックスから取得し、DBからは表示するページ分のみを取得する
+    @Transactional(readOnly = true)
+    public ReportSearchPage search(String keyword, int page) {
+        List<Integer> ids = reportSearchIndex.search(keyword);
+        page = Math.max(page, 0);
+        int from = Math.min(page * PAGE_SIZE, ids.size());
+        List<Integer> pageIds = ids.subList(from, Math.min(from + PAGE_SIZE, ids.size()));
+
+        List<ReportListItem> reportList = new ArrayList<ReportListItem>();
+        if (!pageIds.isEmpty()) {
+            Map<Integer, ReportListItem> rows = new HashMap<Integer, ReportListItem>();
+            for (ReportListItem row : reportRepository.findListItemsByIdIn(pageIds)) {
+                rows.put(row.id(), row);
+            }
+            // 検索結果の並び順に合わせる
+            for (Integer id : pageIds) {
+                if (rows.containsKey(id)) {
+                    reportList.add(rows.get(id));
+                }
+            }
+        }
+        return new ReportSearchPage(keyword, reportList, page, ids.size(), PAGE_SIZE);
     }
 
-    // 日報一覧表示処理
-    public List<Report> findAll() {
-        return reportRepository.findAll();
+    // 日報の件数
+    @Transactional(readOnly = true)
+    public long count() {
+        return reportRepository.count();
     }
 
-    // IDで1件を検索
+    // 日報のCSV出力
+    // ストリームで1件ずつ書き出し、書き出した日報は永続化コンテキストから切り離してメモリ使用量を一定に保つ
+    @Transactional(readOnly = true)
+    public void exportCsv(LocalDate from, LocalDate to, String employeeCode, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        try (Stream<Report> stream = reportRepository.streamForExport(from, to, employeeCode)) {
+            Iterator<Report> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Report report = iterator.next();
+                writer.write(report.getReportDate().toString());
+                writer.write(',');
+                writer.write(Csv.escape(report.getEmployee().getCode()));
+                writer.write(',');
+                writer.write(Csv.escape(report.getEmployee().getName()));
+                writer.write(',');
+                writer.write(Csv.escape(report.getTitle()));
+                writer.write(',');
+                writer.write(Csv.escape(report.getContent()));
+                writer.write("\r\n");
+                entityManager.detach(report);
+            }
+        }
+        writer.flush();
+    }
+
+    // IDで1件を検索(従業員も同じSQLで読み込むため、トランザクション終了後も従業員を参照できる)
+    @Transactional(readOnly = true)
     public Report findById(Integer id) {
         Optional<Report> option = reportRepository.findById(id);
         return option.orElse(null);
     }
 
+    // 日報と従業員の更新日時の新しい方(日報が存在しない場合はnull)
+    @Transactional(readOnly = true)
+    public LocalDateTime findLastModified(Integer id) {
+        return reportRepository.findLastModifiedById(id).orElse(null);
+    }
+
     // 特定の従業員と日付に基づいて日報を検索
+    @Transactional(readOnly = true)
     public Report findByEmployeeAndReportDate(Employee employee, LocalDate reportDate) {
         Optional<Report> option = reportRepository.findByEmployeeAndReportDateAndDeleteFlgFalse(employee, reportDate);
         return option.orElse(null);
@@ -43,12 +172,13 @@ public class ReportService {
 
 
     // 従業員に紐づく日報を取得
+    @Transactional(readOnly = true)
     public List<Report> findByEmployee(Employee employee) {
         return reportRepository.findByEmployee(employee);
     }
 
     // 日報保存
-    @Transactional
+    // 同一従業員・同一日付の重複はDBの一意制約で検出するため、事前の検索は行わずINSERTのみを発行する
     public ErrorKinds save(Report report) {
         // 入力チェック
         ErrorKinds inputCheckResult = validateReport(report);
@@ -56,12 +186,6 @@ public class ReportService {
             return inputCheckResult;
         }
 
-        // 日付重複チェック
-        Report existingReport = findByEmployeeAndReportDate(report.getEmployee(), report.getReportDate());
-        if (existingReport != null) {
-            return ErrorKinds.DATECHECK_ERROR;
-        }
-
         // 日報のフラグと時間を設定
         report.setDeleteFlg(false);
         LocalDateTime now = LocalDateTime.now();
@@ -69,7 +193,16 @@ public class ReportService {
         report.setUpdatedAt(now);
 
         // 日報を保存
-        reportRepository.save(report);
+        try {
+            reportRepository.save(report);
+        } catch (DataIntegrityViolationException e) {
+            // 日付重複チェック(一意制約違反)
+            if (isReportDateDuplicate(e)) {
+                return ErrorKinds.DATECHECK_ERROR;
+            }
+            throw e;
+        }
+        reportSearchIndex.put(report);
         return ErrorKinds.SUCCESS; // 成功を返す
     }
 
@@ -81,48 +214,42 @@ public class ReportService {
         report.setDeleteFlg(true);
 
         reportRepository.save(report);
+        Integer id = report.getId();
+        afterCommit(() -> reportSearchIndex.remove(id));
         return ErrorKinds.SUCCESS;
     }
 
-    // 日報更新
+    // 従業員に紐づく日報を一括削除
     @Transactional
+    public int deleteByEmployee(Employee employee) {
+        String code = employee.getCode();
+        afterCommit(() -> reportSearchIndex.removeByEmployee(code));
+        return reportRepository.softDeleteByEmployeeCode(code, LocalDateTime.now());
+    }
+
+    // 日報更新
     public ErrorKinds update(Report existingReport) {
         // 更新日時を設定
         LocalDateTime now = LocalDateTime.now();
         existingReport.setUpdatedAt(now);
 
         // 日報を保存（既存のレポートを更新）
-        reportRepository.save(existingReport);
+        try {
+            reportRepository.save(existingReport);
+        } catch (DataIntegrityViolationException e) {
+            // 更新チェック後に同じ日付の日報が登録された場合
+            if (isReportDateDuplicate(e)) {
+                return ErrorKinds.DATECHECK_ERROR;
+            }
+            throw e;
+        }
+        reportSearchIndex.put(existingReport);
         return ErrorKinds.SUCCESS;
     }
 
     // 入力チェック
     public ErrorKinds validateReport(Report report) {
-        if (report.getReportDate() == null) {
-            return ErrorKinds.BLANK_ERROR;
-        }
-        if (report.getTitle() == null || report.getTitle().isEmpty()) {
-            return ErrorKinds.BLANK_ERROR;
-        }
-        if (report.getTitle().length() > 100) {
-            return ErrorKinds.TITLE_LENGTH_ERROR;
-        }
-        if (report.getContent() == null || report.getContent().isEmpty()) {
-            return ErrorKinds.BLANK_ERROR;
-        }
-        if (report.getContent().length() > 600) {
-            return ErrorKinds.CONTENT_LENGTH_ERROR;
-        }
-        return ErrorKinds.SUCCESS;
-    }
-
-    // 日報新規登録時のエラーチェック
-    public ErrorKinds checkReportExists(Employee employee, LocalDate reportDate) {
-        Report existingReport = findByEmployeeAndReportDate(employee, reportDate);
-        if (existingReport != null) {
-            return ErrorKinds.DATECHECK_ERROR;
-        }
-        return ErrorKinds.SUCCESS;
+        return InputValidator.validateReport(report);
     }
 
  // 日報更新時のエラーチェック
@@ -140,4 +267,24 @@ public class ReportService {
         return ErrorKinds.SUCCESS; // エラーがなければ成功を返す
     }
 
+    // 全文検索インデックスへの反映はコミット後に行う(ロールバックされた変更を反映しない)
+    private void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+
+    // 従業員・日付の一意制約違反かどうかのチェック
+    private boolean isReportDateDuplicate(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase().contains(Report.UNIQUE_EMPLOYEE_REPORT_DATE);
+    }
+
 }
@@ -1,8 +1,10 @@
 package com.techacademy.service;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -10,37 +12,67 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import com.techacademy.entity.Employee;
 
+// ログイン中の従業員(セッションに保存する認証情報)
+// 従業員エンティティは保持せず、社員番号・氏名・権限と版(ログイン時点の従業員の更新日時)のみを持つ
+// 最新の従業員エンティティが必要な場合はEmployeeService#findCurrentで取得する
 public class UserDetail implements UserDetails {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
-    private final Employee employee;
-    private final List<SimpleGrantedAuthority> authorities;
+    // 権限ごとのGrantedAuthority(従業員ごとに作成しない)
+    private static final Map<Employee.Role, List<GrantedAuthority>> AUTHORITIES = new EnumMap<Employee.Role, List<GrantedAuthority>>(
+            Employee.Role.class);
+    static {
+        for (Employee.Role role : Employee.Role.values()) {
+            AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority(role.toString())));
+        }
+    }
+
+    private final String code;
+    private final String name;
+    private final Employee.Role role;
+    private final LocalDateTime updatedAt;
+
+    // パスワード(ハッシュ値)はログイン時の照合にのみ使うため、セッションには保存しない
+    private final transient String password;
 
     public UserDetail(Employee employee) {
-        this.employee = employee;
+        this.code = employee.getCode();
+        this.name = employee.getName();
+        this.role = employee.getRole();
+        this.updatedAt = employee.getUpdatedAt();
+        this.password = employee.getPassword();
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getName() {
+        return name;
+    }
 
-        List<SimpleGrantedAuthority> authorities = new ArrayList<SimpleGrantedAuthority>();
-        authorities.add(new SimpleGrantedAuthority(employee.getRole().toString()));
-        this.authorities = authorities;
+    public Employee.Role getRole() {
+        return role;
     }
 
-    public Employee getEmployee() {
-        return employee;
+    // 版(ログイン時点の従業員の更新日時)
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return authorities;
+        return AUTHORITIES.get(role);
     }
 
     @Override
     public String getPassword() {
-        return employee.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return employee.getCode();
+        return code;
     }
 
     @Override
@@ -66,4 +98,4 @@ public class UserDetail implements UserDetails {
         // 従業員が有効であればtrueを返す
         return true;
     }
-}
\ No newline at end of file
+}
@@ -3,16 +3,23 @@ package com.techacademy.service;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.techacademy.entity.Employee;
 import com.techacademy.repository.EmployeeRepository;
 
 @Service
-public class UserDetailService implements UserDetailsService {
+public class UserDetailService implements UserDetailsService, UserDetailsPasswordService {
+    // 認証情報キャッシュ名(従業員の登録・更新・削除時にEmployeeServiceから破棄する)
+    public static final String CACHE_NAME = "userDetails";
+
     private final EmployeeRepository employeeRepository;
 
     @Autowired
@@ -20,13 +27,32 @@ public class UserDetailService implements UserDetailsService {
         this.employeeRepository = repository;
     }
 
+    // 読み取り専用にしない(レプリカに振り分けず、プライマリの最新の状態で認証する)
     @Override
+    @Cacheable(cacheNames = CACHE_NAME, key = "#username")
+    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<Employee> employee = employeeRepository.findById(username);
+        Optional<Employee> employee = employeeRepository.findForLoginByCode(username);
+
+        if (employee.isEmpty()) {
+            throw new UsernameNotFoundException("Exception:Username Not Found");
+        }
+        return new UserDetail(employee.get());
+    }
+
+    // ログイン成功時、保存済みパスワードのBCryptコストが設定値と異なる場合に再ハッシュ化したパスワードで更新する
+    // 検索と更新を同じトランザクション(プライマリ)で行う(レプリカの古い状態で氏名・権限・削除フラグを上書きしない)
+    @Override
+    @CacheEvict(cacheNames = CACHE_NAME, key = "#user.username")
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Optional<Employee> employee = employeeRepository.findForLoginByCode(user.getUsername());
 
         if (employee.isEmpty()) {
             throw new UsernameNotFoundException("Exception:Username Not Found");
         }
+        employee.get().setPassword(newPassword);
+        employeeRepository.save(employee.get());
         return new UserDetail(employee.get());
     }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ExecutorPasswordEncoderTest {
+
+    private final ExecutorPasswordEncoder encoder = new ExecutorPasswordEncoder(4, 1, 10, Duration.ofSeconds(10));
+
+    @AfterEach
+    void afterEach() {
+        encoder.destroy();
+    }
+
+    // ハッシュ化と照合
+    @Test
+    void testEncodeAndMatches() {
+        String encoded = encoder.encode("password1");
+        assertTrue(encoded.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("password1", encoded));
+        assertFalse(encoder.matches("password2", encoded));
+    }
+
+    // 設定値と異なるコストのパスワードは再ハッシュ化の対象となる
+    @Test
+    void testUpgradeEncoding() {
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password1")));
+        assertTrue(encoder.upgradeEncoding("$2a$10$vY93/U2cXCfEMBESYnDJUevcjJ208sXav23S.K8elE/J6Sxr4w5jO"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    // 待ち時間が上限を超えた場合は結果を待たずにエラーとし、拒否件数に含める
+    @Test
+    void testTimeout() throws Exception {
+        ExecutorPasswordEncoder slowEncoder = new ExecutorPasswordEncoder(14, 1, 10, Duration.ofMillis(100));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        slowEncoder.bindTo(registry);
+        try {
+            // 専用スレッドを他の処理で使用中にする
+            CompletableFuture<String> running = slowEncoder.encodeAsync("password1");
+
+            long start = System.nanoTime();
+            assertThrows(AuthenticationServiceException.class, () -> slowEncoder.encode("password2"));
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+            assertEquals(registry.get("password.hashing.rejected").functionCounter().count(), 1.0);
+
+            // 使用中の処理は完了する
+            assertTrue(running.get().startsWith("$2a$14$"));
+        } finally {
+            slowEncoder.destroy();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+class FragmentCacheDialectTest {
+
+    private final Counter counter = new Counter();
+
+    private final ConcurrentMapCache cache = new ConcurrentMapCache("fragments");
+
+    // キーの値が同じ場合は2回目以降キャッシュした描画結果を出力し、部品以外は毎回描画する
+    @Test
+    void testCachedFragment() {
+        SpringTemplateEngine engine = templateEngine(true);
+
+        String first = engine.process("fragment-cache/page", context("A"));
+        assertTrue(first.contains("<p>A:1</p>"));
+        assertTrue(first.contains("<span>2</span>"));
+        assertFalse(first.contains("xmlns:cache"));
+
+        String second = engine.process("fragment-cache/page", context("A"));
+        assertTrue(second.contains("<p>A:1</p>"));
+        assertTrue(second.contains("<span>3</span>"));
+
+        // キーの値が異なる場合は描画する
+        String other = engine.process("fragment-cache/page", context("B"));
+        assertTrue(other.contains("<p>B:4</p>"));
+    }
+
+    // キャッシュ無効の場合は毎回描画する
+    @Test
+    void testDisabled() {
+        SpringTemplateEngine engine = templateEngine(false);
+
+        engine.process("fragment-cache/page", context("A"));
+        String second = engine.process("fragment-cache/page", context("A"));
+        assertTrue(second.contains("<p>A:3</p>"));
+    }
+
+    private SpringTemplateEngine templateEngine(boolean enabled) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setSuffix(".html");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        engine.addDialect(new FragmentCacheDialect(() -> engine, cache, enabled));
+        return engine;
+    }
+
+    private Context context(String label) {
+        return new Context(Locale.JAPANESE, Map.of("label", label, "counter", counter));
+    }
+
+    // 描画された回数の確認用
+    public static class Counter {
+        private int count;
+
+        public int next() {
+            return ++count;
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.techacademy;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.techacademy.service.EmployeeService;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class HibernateCacheEndpointTest {
+
+    private MockMvc mockMvc;
+
+    private final WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    HibernateCacheEndpointTest(WebApplicationContext context) {
+        this.webApplicationContext = context;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        // Spring Securityを有効にする
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+    }
+
+    // 管理者はリージョンごとの統計情報を取得できる
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void testRegions() throws Exception {
+        // 2回検索し、2回目はキャッシュから取得する
+        employeeService.findByCode("1");
+        employeeService.findByCode("1");
+
+        mockMvc.perform(get("/actuator/hibernatecaches")) // URLにアクセス
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(jsonPath("$.employees.size").value(greaterThan(0)))
+                .andExpect(jsonPath("$.employees.hits").value(greaterThan(0)))
+                .andExpect(jsonPath("$.['employee-codes'].hits").value(greaterThan(0)))
+                .andExpect(jsonPath("$.['employee-queries']").exists())
+                .andExpect(jsonPath("$.['default-update-timestamps-region'].size").exists());
+    }
+
+    // 一般ユーザーは統計情報を取得できない
+    @Test
+    @WithMockUser(authorities = "GENERAL")
+    void testRegionsForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/hibernatecaches")).andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,62 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+@AutoConfigureObservability
+@ExtendWith(SpringExtension.class)
+class MetricsConfigTest {
+
+    private MockMvc mockMvc;
+
+    private final WebApplicationContext webApplicationContext;
+
+    MetricsConfigTest(WebApplicationContext context) {
+        this.webApplicationContext = context;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        // Spring Securityを有効にする
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+    }
+
+    // 管理者はPrometheus形式のメトリクスを取得できる
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void testPrometheus() throws Exception {
+        // サービスのメソッドを実行してから取得する
+        mockMvc.perform(get("/reports")).andExpect(status().isOk());
+
+        String body = mockMvc.perform(get("/actuator/prometheus")) // URLにアクセス
+                .andExpect(status().isOk()) // ステータスを確認
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("app_service_seconds_count{class=\"com.techacademy.service.ReportService\""));
+        assertTrue(body.contains("hibernate_query_executions_total"));
+        assertTrue(body.contains("hibernate_flushes_total"));
+        assertTrue(body.contains("hikaricp_connections_acquire_seconds"));
+        assertTrue(body.contains("password_hashing_seconds_count{operation=\"matches\""));
+    }
+
+    // 一般ユーザーはメトリクスを取得できない
+    @Test
+    @WithMockUser(authorities = "GENERAL")
+    void testPrometheusForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,85 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// プライマリ・レプリカを別々の組み込みDB(H2)として振り分けを確認する
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1", "sa", "");
+    private final DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1", "sa", "");
+
+    @BeforeEach
+    void beforeEach() {
+        // どちらのDBから読み込んだかを判別できるよう、DBごとに異なる値を登録する
+        for (DataSource dataSource : new DataSource[] { primary, replica }) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(10))");
+            jdbcTemplate.execute("DELETE FROM node");
+            jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", dataSource == primary ? "primary" : "replica");
+        }
+    }
+
+    // 読み取り専用トランザクションはレプリカ、それ以外はプライマリを使う
+    @Test
+    void testRouting() {
+        DataSource routing = routing(replica, Duration.ofSeconds(30));
+
+        assertEquals(query(routing, true), "replica");
+        assertEquals(query(routing, false), "primary");
+        // トランザクション外の場合もプライマリ
+        assertEquals(new JdbcTemplate(routing).queryForObject("SELECT name FROM node", String.class), "primary");
+    }
+
+    // 更新はプライマリに反映される
+    @Test
+    void testWrite() {
+        DataSource routing = routing(replica, Duration.ofSeconds(30));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        transactionTemplate.executeWithoutResult(
+                status -> new JdbcTemplate(routing).update("UPDATE node SET name = ?", "updated"));
+
+        assertEquals(new JdbcTemplate(primary).queryForObject("SELECT name FROM node", String.class), "updated");
+        assertEquals(new JdbcTemplate(replica).queryForObject("SELECT name FROM node", String.class), "replica");
+    }
+
+    // レプリカに接続できない場合はプライマリを使い、再試行の間隔の経過後に再びレプリカを試す
+    @Test
+    void testFallback() {
+        DriverManagerDataSource down = new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/routing_down", "sa", "");
+        DataSource routing = routing(down, Duration.ofSeconds(30));
+        assertEquals(query(routing, true), "primary");
+
+        // 再試行の間隔内はレプリカに接続しない(接続先を復旧しても使われない)
+        down.setUrl("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1");
+        assertEquals(query(routing, true), "primary");
+
+        DriverManagerDataSource recovered = new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/routing_down", "sa", "");
+        DataSource retryImmediately = routing(recovered, Duration.ZERO);
+        assertEquals(query(retryImmediately, true), "primary");
+        recovered.setUrl("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1");
+        assertEquals(query(retryImmediately, true), "replica");
+    }
+
+    private DataSource routing(DataSource replica, Duration retryInterval) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, retryInterval));
+    }
+
+    private String query(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(
+                status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+}
@@ -0,0 +1,98 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.CookieManager;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// 同じDBを使う2台のアプリでのセッションの共有
+// 1台目でログインしたセッションで2台目にアクセスでき、1台目を停止してもログイン状態が保たれることを確認する
+class SessionClusterTest {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+    // 登録済みの従業員のパスワードを一時的に変更してログインする
+    private static final String CODE = "2";
+    private static final String PASSWORD = "password1";
+
+    @Test
+    void testSharedSession() throws Exception {
+        ConfigurableApplicationContext node1 = start();
+        ConfigurableApplicationContext node2 = start();
+        JdbcTemplate jdbcTemplate = node2.getBean(JdbcTemplate.class);
+        String password = jdbcTemplate.queryForObject("SELECT password FROM employees WHERE code = ?", String.class, CODE);
+        try {
+            jdbcTemplate.update("UPDATE employees SET password = ? WHERE code = ?",
+                    node2.getBean(PasswordEncoder.class).encode(PASSWORD), CODE);
+
+            // 1台目でログイン
+            CookieManager cookies = new CookieManager();
+            HttpClient client = HttpClient.newBuilder().cookieHandler(cookies).build();
+            String loginPage = client.send(HttpRequest.newBuilder(uri(node1, "/login")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Matcher csrf = CSRF.matcher(loginPage);
+            assertTrue(csrf.find());
+            HttpResponse<String> login = client.send(HttpRequest.newBuilder(uri(node1, "/login"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("username=" + CODE + "&password=" + PASSWORD + "&_csrf="
+                            + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8)))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(login.statusCode(), 302);
+            assertFalse(login.headers().firstValue("Location").orElse("").contains("error"));
+
+            HttpCookie session = cookies.getCookieStore().getCookies().stream()
+                    .filter(cookie -> "SESSION".equals(cookie.getName())).findFirst().get();
+            assertEquals(jdbcTemplate.queryForObject("SELECT PRINCIPAL_NAME FROM SPRING_SESSION WHERE SESSION_ID = ?",
+                    String.class, sessionId(session)), CODE);
+
+            // 同じセッションで2台目にアクセスできる
+            assertEquals(reports(node2, session), 200);
+
+            // 1台目を停止しても2台目ではログイン状態が保たれる
+            node1.close();
+            assertEquals(reports(node2, session), 200);
+        } finally {
+            jdbcTemplate.update("UPDATE employees SET password = ? WHERE code = ?", password, CODE);
+            node1.close();
+            node2.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        // application.propertiesより優先させるため、コマンドライン引数で空いているポートを指定する
+        return new SpringApplicationBuilder(DailyReportSystemApplication.class)
+                .run("--server.port=0", "--app.ajp.port=0");
+    }
+
+    private URI uri(ConfigurableApplicationContext node, String path) {
+        return URI.create("http://localhost:" + ((ServletWebServerApplicationContext) node).getWebServer().getPort() + path);
+    }
+
+    // Cookieの値はセッションIDをBase64で符号化したもの
+    private String sessionId(HttpCookie cookie) {
+        return new String(Base64.getDecoder().decode(cookie.getValue()), StandardCharsets.UTF_8);
+    }
+
+    // ログインしていない場合はログイン画面へのリダイレクト(302)になる
+    private int reports(ConfigurableApplicationContext node, HttpCookie session) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(node, "/reports"))
+                .header("Cookie", session.getName() + "=" + session.getValue()).build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
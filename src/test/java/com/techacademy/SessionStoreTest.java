@@ -0,0 +1,146 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// セッションのDBへの保存(組み込みDB(H2)で確認する)
+class SessionStoreTest {
+
+    private static final DataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:session_store;DB_CLOSE_DELAY=-1", "sa", "");
+
+    static {
+        new ResourceDatabasePopulator(new ClassPathResource("org/springframework/session/jdbc/schema-h2.sql"))
+                .execute(dataSource);
+    }
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    private TouchThrottlingSessionRepository<Session> repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void beforeEach() {
+        jdbcTemplate.update("DELETE FROM SPRING_SESSION");
+
+        SessionSerializer serializer = new SessionSerializer(512, getClass().getClassLoader());
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class, new SerializingConverter(serializer));
+        conversionService.addConverter(byte[].class, Object.class, new DeserializingConverter(serializer));
+
+        JdbcIndexedSessionRepository jdbcRepository = new JdbcIndexedSessionRepository(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        jdbcRepository.setConversionService(conversionService);
+        jdbcRepository.setCleanupCron("-");
+        jdbcRepository.afterPropertiesSet();
+        // JdbcSessionは非公開の型のため、Sessionとして扱う
+        repository = new TouchThrottlingSessionRepository<Session>(
+                (FindByIndexNameSessionRepository<Session>) (FindByIndexNameSessionRepository<?>) jdbcRepository,
+                Duration.ofSeconds(60));
+    }
+
+    // 属性を変更しないリクエストでは、最終アクセス日時が一定時間以上進んだ場合のみ保存する
+    @Test
+    void testSaveOnlyWhenChanged() {
+        String id = create("attribute", "value");
+        long saved = lastAccessTime(id);
+
+        touch(id, Instant.ofEpochMilli(saved).plusSeconds(10));
+        assertEquals(lastAccessTime(id), saved);
+
+        Instant later = Instant.ofEpochMilli(saved).plusSeconds(120);
+        touch(id, later);
+        assertEquals(lastAccessTime(id), later.toEpochMilli());
+
+        // 属性を変更した場合は保存する
+        save(id, "attribute", "changed");
+        assertEquals(repository.findById(id).getAttribute("attribute"), "changed");
+    }
+
+    // 閾値以上のサイズの属性は圧縮して保存する
+    @Test
+    void testCompression() {
+        String large = "日報".repeat(1000);
+        String id = create("small", "value");
+        save(id, "large", large);
+
+        assertEquals(attributeBytes(id, "small")[0], (byte) 0xAC);
+        byte[] compressed = attributeBytes(id, "large");
+        assertEquals(compressed[0], (byte) 0x78);
+        assertTrue(compressed.length < 200);
+
+        assertEquals(repository.findById(id).getAttribute("small"), "value");
+        assertEquals(repository.findById(id).getAttribute("large"), large);
+    }
+
+    // 期限切れのセッションを件数を区切って削除する(属性も削除される)
+    @Test
+    void testCleanUp() {
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (int i = 0; i < 1200; i++) {
+            rows.add(new Object[] { "expired-" + i, "expired-" + i, now - 7200_000, now - 7200_000, 1800, now - 5400_000 });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO SPRING_SESSION (PRIMARY_ID, SESSION_ID, CREATION_TIME, LAST_ACCESS_TIME, "
+                + "MAX_INACTIVE_INTERVAL, EXPIRY_TIME) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.update("INSERT INTO SPRING_SESSION_ATTRIBUTES (SESSION_PRIMARY_ID, ATTRIBUTE_NAME, ATTRIBUTE_BYTES) "
+                + "VALUES ('expired-0', 'attribute', X'00')");
+        String id = create("attribute", "value");
+
+        assertEquals(new ExpiredSessionCleaner(jdbcTemplate, "SPRING_SESSION", 500).cleanUp(), 1200);
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM SPRING_SESSION", Integer.class), 1);
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM SPRING_SESSION_ATTRIBUTES", Integer.class), 1);
+        assertNotNull(repository.findById(id));
+    }
+
+    private String create(String name, Object value) {
+        TouchThrottlingSessionRepository.TrackedSession<Session> session = repository.createSession();
+        session.setAttribute(name, value);
+        repository.save(session);
+        return session.getId();
+    }
+
+    // セッションを読み込んで属性を変更し保存する(1リクエスト分の処理)
+    private void save(String id, String name, Object value) {
+        TouchThrottlingSessionRepository.TrackedSession<Session> session = repository.findById(id);
+        session.setAttribute(name, value);
+        repository.save(session);
+    }
+
+    // セッションを読み込んで最終アクセス日時のみを変更し保存する(参照のみのリクエスト)
+    private void touch(String id, Instant lastAccessedTime) {
+        TouchThrottlingSessionRepository.TrackedSession<Session> session = repository.findById(id);
+        session.setLastAccessedTime(lastAccessedTime);
+        repository.save(session);
+    }
+
+    private long lastAccessTime(String id) {
+        return jdbcTemplate.queryForObject("SELECT LAST_ACCESS_TIME FROM SPRING_SESSION WHERE SESSION_ID = ?", Long.class, id);
+    }
+
+    private byte[] attributeBytes(String id, String name) {
+        return jdbcTemplate.queryForObject("SELECT a.ATTRIBUTE_BYTES FROM SPRING_SESSION_ATTRIBUTES a JOIN SPRING_SESSION s "
+                + "ON s.PRIMARY_ID = a.SESSION_PRIMARY_ID WHERE s.SESSION_ID = ? AND a.ATTRIBUTE_NAME = ?", byte[].class, id, name);
+    }
+}
@@ -0,0 +1,60 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+class SqlProfilerTest {
+
+    private final SqlProfiler profiler = new SqlProfiler(
+            new SqlProfilerProperties(true, 30, Duration.ofMillis(200), Duration.ofMillis(100), 3));
+
+    // リクエスト中のSQLの件数・合計時間を記録する
+    @Test
+    void testProfile() {
+        profiler.start();
+        execute("select * from reports where id=?", 5);
+        execute("select * from employees where code=?", 7);
+        SqlProfiler.Profile profile = profiler.stop();
+
+        assertEquals(profile.statementCount(), 2);
+        assertEquals(profile.jdbcMillis(), 12L);
+        assertTrue(profile.repeatedStatements(3).isEmpty());
+    }
+
+    // 同じ形のSQL(値のみ異なるものを含む)の繰り返しをN+1の疑いとして検出する
+    @Test
+    void testRepeatedStatements() {
+        profiler.start();
+        execute("select * from reports", 1);
+        for (int i = 1; i <= 3; i++) {
+            execute("select * from employees   where id=?", 1);
+            execute("select * from employees where code='" + i + "'", 1);
+        }
+        SqlProfiler.Profile profile = profiler.stop();
+
+        assertEquals(profile.statementCount(), 7);
+        assertEquals(profile.repeatedStatements(3),
+                Map.of("select * from employees where id=?", 3, "select * from employees where code=?", 3));
+    }
+
+    // 計測していないスレッドのSQLは記録しない
+    @Test
+    void testNotStarted() {
+        execute("select * from reports", 1);
+        assertNull(profiler.stop());
+    }
+
+    private void execute(String sql, long elapsedMillis) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setElapsedTime(elapsedMillis);
+        profiler.afterQuery(info, List.of(new QueryInfo(sql)));
+    }
+}
@@ -0,0 +1,43 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.ajp.AjpNioProtocol;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TomcatConfigurationTest {
+
+    // 設定値がAJPコネクタに反映される
+    @Test
+    void testAjpConnector() {
+        AjpProperties properties = new AjpProperties(18009, AjpProperties.Protocol.NIO,
+                AjpProperties.ExecutorMode.DEDICATED, 50, 5, 300, 20, Duration.ofSeconds(20), Duration.ofSeconds(30), 65536);
+        TomcatConfiguration configuration = new TomcatConfiguration(new MockEnvironment(), properties, new ServerProperties());
+
+        Connector connector = configuration.ajpConnector();
+        assertEquals(connector.getPort(), 18009);
+        AjpNioProtocol protocol = (AjpNioProtocol) connector.getProtocolHandler();
+        assertEquals(protocol.getMaxThreads(), 50);
+        assertEquals(protocol.getMinSpareThreads(), 5);
+        assertEquals(protocol.getMaxConnections(), 300);
+        assertEquals(protocol.getAcceptCount(), 20);
+        assertEquals(protocol.getConnectionTimeout(), 20000);
+        assertEquals(protocol.getKeepAliveTimeout(), 30000);
+        assertEquals(protocol.getPacketSize(), 65536);
+        assertFalse(protocol.getSecretRequired());
+
+        // 起動前はスレッドプールが無いため値なし、接続数の上限は設定値
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        configuration.bindTo(registry);
+        assertTrue(Double.isNaN(registry.get("tomcat.ajp.threads.busy").gauge().value()));
+        assertEquals(registry.get("tomcat.ajp.connections.max").gauge().value(), 300.0);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class WebMvcConfigTest {
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ResourceUrlProvider resourceUrlProvider;
+
+    @BeforeEach
+    void beforeEach() {
+        // Spring Securityを有効にする
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+    }
+
+    // CSSはハッシュ付きのURLで、圧縮済みファイルが長期間キャッシュ可能として返される
+    @Test
+    void testVersionedResource() throws Exception {
+        String url = resourceUrlProvider.getForLookupPath("/css/bootstrap.min.css");
+        assertTrue(url.matches("/css/bootstrap\\.min-[0-9a-f]{32}\\.css"));
+
+        mockMvc.perform(get(url).header("Accept-Encoding", "gzip, deflate, br")).andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+
+        // 圧縮に対応していないブラウザには元のファイルを返す
+        mockMvc.perform(get(url)).andExpect(status().isOk()).andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+}
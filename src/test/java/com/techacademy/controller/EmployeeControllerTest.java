@@ -28,6 +28,7 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import com.techacademy.dto.EmployeeListItem;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Employee.Role;
 import com.techacademy.service.UserDetail;
@@ -65,21 +66,19 @@ class EmployeeControllerTest {
                 .andReturn(); // 内容の取得
 
         @SuppressWarnings("unchecked")
-        List<Employee> employeeList = (List<Employee>) result.getModelAndView().getModel().get("employeeList");
+        List<EmployeeListItem> employeeList = (List<EmployeeListItem>) result.getModelAndView().getModel().get("employeeList");
 
-        // employeeListをstreamへ変換した上で、streamのfilterメソッドでCodeが2の受講生のオブジェクトのみ取得する
-        Employee employeeCode1 = employeeList.stream().filter(e -> "1".equals(e.getCode())).findFirst().get();
-        assertEquals(employeeCode1.getCode(), "1");
-        assertEquals(employeeCode1.getName(), "煌木　太郎");
-        assertEquals(employeeCode1.getRole(), Role.ADMIN);
-        assertEquals(employeeCode1.getPassword(), "$2a$10$vY93/U2cXCfEMBESYnDJUevcjJ208sXav23S.K8elE/J6Sxr4w5jO");
+        // employeeListをstreamへ変換した上で、streamのfilterメソッドでCodeが1の受講生のオブジェクトのみ取得する
+        EmployeeListItem employeeCode1 = employeeList.stream().filter(e -> "1".equals(e.code())).findFirst().get();
+        assertEquals(employeeCode1.code(), "1");
+        assertEquals(employeeCode1.name(), "煌木　太郎");
 
         // employeeListをstreamへ変換した上で、streamのfilterメソッドでCodeが2の受講生のオブジェクトのみ取得する
-        Employee employeeCode2 = employeeList.stream().filter(e -> "2".equals(e.getCode())).findFirst().get();
-        assertEquals(employeeCode2.getCode(), "2");
-        assertEquals(employeeCode2.getName(), "田中　太郎");
-        assertEquals(employeeCode2.getRole(), Role.GENERAL);
-        assertEquals(employeeCode2.getPassword(), "$2a$10$HPIjRCymeRZKEIq.71TDduiEotOlb8Ai6KQUHCs4lGNYlLhcKv4Wi");
+        EmployeeListItem employeeCode2 = employeeList.stream().filter(e -> "2".equals(e.code())).findFirst().get();
+        assertEquals(employeeCode2.code(), "2");
+        assertEquals(employeeCode2.name(), "田中　太郎");
+
+        assertEquals(result.getModelAndView().getModel().get("listSize"), 2);
 
     }
 
@@ -0,0 +1,217 @@
+package com.techacademy.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.techacademy.dto.ReportListItem;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Report;
+import com.techacademy.service.UserDetail;
+import com.techacademy.support.SqlStatementCounter;
+
+@SpringBootTest(properties = SqlStatementCounter.PROPERTY)
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class ReportControllerTest {
+
+    private MockMvc mockMvc;
+
+    private final WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    ReportControllerTest(WebApplicationContext context) {
+        this.webApplicationContext = context;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        // Spring Securityを有効にする
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+    }
+
+    // 日報一覧画面
+    @Test
+    @WithMockUser
+    void testList() throws Exception {
+        SqlStatementCounter.reset();
+
+        // HTTPリクエストに対するレスポンスの検証
+        MvcResult result = mockMvc.perform(get("/reports")) // URLにアクセス
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(model().attributeExists("reportList")) // Modelの内容を確認
+                .andExpect(model().attributeExists("page")) // Modelの内容を確認
+                .andExpect(model().hasNoErrors()) // Modelのエラー有無の確認
+                .andExpect(view().name("reports/list")) // viewの確認
+                .andReturn(); // 内容の取得
+
+        @SuppressWarnings("unchecked")
+        List<ReportListItem> reportList = (List<ReportListItem>) result.getModelAndView().getModel().get("reportList");
+        assertEquals(reportList.size(), 2);
+
+        // 従業員名は結合して取得される
+        ReportListItem report = reportList.stream().filter(r -> "田中　太郎".equals(r.employeeName())).findFirst().get();
+        assertEquals(report.title(), "田中　太郎の記載、タイトル");
+        assertEquals(result.getModelAndView().getModel().get("listSize"), 2L);
+
+        // SQLは一覧取得と件数取得の2件のみ(従業員ごとのSELECTが発生しない)
+        assertEquals(SqlStatementCounter.count(), 2);
+    }
+
+    // 日報詳細画面
+    @Test
+    @WithMockUser
+    void testDetail() throws Exception {
+        SqlStatementCounter.reset();
+
+        // HTTPリクエストに対するレスポンスの検証
+        MvcResult result = mockMvc.perform(get("/reports/1/")) // URLにアクセス
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(model().attributeExists("report")) // Modelの内容を確認
+                .andExpect(model().attributeExists("employee")) // Modelの内容を確認
+                .andExpect(view().name("reports/detail")) // viewの確認
+                .andReturn(); // 内容の取得
+
+        Report report = (Report) result.getModelAndView().getModel().get("report");
+        assertEquals(report.getTitle(), "煌木　太郎の記載、タイトル");
+        assertEquals(report.getEmployee().getName(), "煌木　太郎");
+        // 従業員はトランザクション内で読み込み済み(Open Session in View無効のため、描画中に遅延読み込みしない)
+        assertTrue(Hibernate.isInitialized(report.getEmployee()));
+
+        // 更新日時の検索と、日報・従業員の取得(1件のSQL)のみ
+        assertEquals(SqlStatementCounter.count(), 2);
+    }
+
+    // 日報詳細画面(ブラウザのキャッシュが最新の場合)
+    @Test
+    @WithMockUser
+    void testDetailNotModified() throws Exception {
+        // ETagはセッションごとに異なるため、同じセッションでアクセスする
+        MockHttpSession session = new MockHttpSession();
+        String etag = mockMvc.perform(get("/reports/1/").session(session)).andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private")).andReturn().getResponse()
+                .getHeader("ETag");
+        SqlStatementCounter.reset();
+
+        // 同じETagで再度アクセスすると画面を作成せずに304が返る
+        mockMvc.perform(get("/reports/1/").session(session).header("If-None-Match", etag)).andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // 更新日時の検索のみで日報は取得しない
+        assertEquals(SqlStatementCounter.count(), 1);
+    }
+
+    // 日報新規登録処理
+    // 日報の従業員はセッションの認証情報ではなく、最新の従業員のエンティティを設定する
+    @Test
+    @Transactional
+    void testAdd() throws Exception {
+        UserDetail userDetail = new UserDetail(employee("2", "ログイン時の氏名"));
+
+        mockMvc.perform(post("/reports/add").with(user(userDetail)).with(csrf()).param("reportDate", "2000-01-01")
+                .param("title", "登録した日報").param("content", "登録した日報の内容")).andExpect(redirectedUrl("/reports"));
+
+        assertEquals(jdbcTemplate.queryForObject(
+                "SELECT e.name FROM reports r JOIN employees e ON e.code = r.employee_code WHERE r.report_date = '2000-01-01'",
+                String.class), "田中　太郎");
+    }
+
+    // 日報新規登録処理(ログイン後に従業員が削除された場合)
+    @Test
+    void testAddDeletedEmployee() throws Exception {
+        UserDetail userDetail = new UserDetail(employee("100", "削除済みの従業員"));
+
+        mockMvc.perform(post("/reports/add").with(user(userDetail)).with(csrf()).param("reportDate", "2000-01-01")
+                .param("title", "登録した日報").param("content", "登録した日報の内容")).andExpect(status().isForbidden());
+    }
+
+    // 日報検索画面
+    @Test
+    @WithMockUser
+    void testSearch() throws Exception {
+        SqlStatementCounter.reset();
+
+        // 全角・半角を区別せず、空白区切りはAND条件で検索される
+        MvcResult result = mockMvc.perform(get("/reports/search").param("q", "田中 ﾀｲﾄﾙ")) // URLにアクセス
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(model().attributeExists("reportList")) // Modelの内容を確認
+                .andExpect(view().name("reports/search")) // viewの確認
+                .andReturn(); // 内容の取得
+
+        @SuppressWarnings("unchecked")
+        List<ReportListItem> reportList = (List<ReportListItem>) result.getModelAndView().getModel().get("reportList");
+        assertEquals(reportList.size(), 1);
+        assertEquals(reportList.get(0).employeeName(), "田中　太郎");
+
+        // SQLはヒットした日報の取得1件のみ
+        assertEquals(SqlStatementCounter.count(), 1);
+    }
+
+    // 日報CSV出力
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void testExport() throws Exception {
+        // 非同期で書き出されるため、開始後に結果を取得する
+        MvcResult result = mockMvc.perform(get("/reports/export.csv").param("employee", "2"))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        String csv = mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andReturn().getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = csv.split("\r\n");
+        assertEquals(lines.length, 2);
+        assertEquals(lines[0], "\uFEFF日付,社員番号,氏名,タイトル,内容");
+        assertTrue(lines[1].endsWith(",2,田中　太郎,田中　太郎の記載、タイトル,田中　太郎の記載、内容"));
+    }
+
+    // 日報CSV出力(権限なし)
+    @Test
+    @WithMockUser(authorities = "GENERAL")
+    void testExportForbidden() throws Exception {
+        mockMvc.perform(get("/reports/export.csv")).andExpect(status().isForbidden());
+    }
+
+    private Employee employee(String code, String name) {
+        Employee employee = new Employee();
+        employee.setCode(code);
+        employee.setName(name);
+        employee.setRole(Employee.Role.GENERAL);
+        employee.setPassword("");
+        employee.setUpdatedAt(LocalDateTime.now());
+        return employee;
+    }
+}
@@ -2,18 +2,25 @@ package com.techacademy.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.techacademy.constants.ErrorKinds;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Employee.Role;
 
+import jakarta.persistence.EntityManagerFactory;
+
 @SpringBootTest
 @ExtendWith(SpringExtension.class)
 class EmployeeServiceTest {
@@ -21,6 +28,12 @@ class EmployeeServiceTest {
     @Autowired
     private EmployeeService service;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     @WithMockUser
     void testFindAll() {
@@ -62,4 +75,89 @@ class EmployeeServiceTest {
 
     }
 
+    @Test
+    void testFindCurrent() {
+
+        // ログイン中の従業員の最新のエンティティを取得し、2回目以降はキャッシュから返る
+        UserDetail userDetail = new UserDetail(service.findByCode("2"));
+        Employee employee = service.findCurrent(userDetail);
+        assertEquals(employee.getCode(), "2");
+        assertEquals(employee.getName(), "田中　太郎");
+        assertSame(service.findCurrent(userDetail), employee);
+
+        // 削除済み(存在しない)従業員の場合
+        Employee deleted = new Employee();
+        deleted.setCode("100");
+        deleted.setRole(Role.GENERAL);
+        deleted.setUpdatedAt(LocalDateTime.now());
+        assertNull(service.findCurrent(new UserDetail(deleted)));
+    }
+
+    @Test
+    void testFindByCodeCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Employee employee = new Employee();
+        employee.setCode("9001");
+        employee.setName("キャッシュ　確認");
+        employee.setRole(Role.GENERAL);
+        employee.setPassword("password1");
+        assertEquals(service.save(employee), ErrorKinds.SUCCESS);
+
+        try {
+            // 社員番号での検索は2回目以降DBを検索しない
+            service.findByCode("9001");
+            long statements = statistics.getPrepareStatementCount();
+            assertEquals(service.findByCode("9001").getName(), "キャッシュ　確認");
+            assertEquals(statistics.getPrepareStatementCount(), statements);
+
+            // 更新後は更新した内容が返る
+            Employee form = new Employee();
+            form.setName("キャッシュ　更新");
+            form.setRole(Role.ADMIN);
+            form.setPassword("");
+            assertEquals(service.update("9001", form), ErrorKinds.SUCCESS);
+            statements = statistics.getPrepareStatementCount();
+            Employee updated = service.findByCode("9001");
+            assertEquals(updated.getName(), "キャッシュ　更新");
+            assertEquals(updated.getRole(), Role.ADMIN);
+            assertEquals(statistics.getPrepareStatementCount(), statements);
+
+            // 論理削除後は取得できず、キャッシュにも残らない
+            assertEquals(service.delete("9001", new UserDetail(service.findByCode("1"))), ErrorKinds.SUCCESS);
+            assertNull(service.findByCode("9001"));
+            assertFalse(entityManagerFactory.getCache().contains(Employee.class, updated.getId()));
+        } finally {
+            jdbcTemplate.update("DELETE FROM employees WHERE code = '9001'");
+            entityManagerFactory.getCache().evict(Employee.class);
+        }
+    }
+
+    @Test
+    void testFindListItemsCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // 一覧の検索結果は2回目以降DBを検索しない
+        service.findListItems();
+        long statements = statistics.getPrepareStatementCount();
+        service.findListItems();
+        assertEquals(statistics.getPrepareStatementCount(), statements);
+
+        Employee employee = new Employee();
+        employee.setCode("9002");
+        employee.setName("一覧　確認");
+        employee.setRole(Role.GENERAL);
+        employee.setPassword("password1");
+        assertEquals(service.save(employee), ErrorKinds.SUCCESS);
+
+        try {
+            // 登録・論理削除後は検索結果のキャッシュが無効化される
+            assertTrue(service.findListItems().stream().anyMatch(item -> "9002".equals(item.code())));
+            assertEquals(service.delete("9002", new UserDetail(service.findByCode("1"))), ErrorKinds.SUCCESS);
+            assertTrue(service.findListItems().stream().noneMatch(item -> "9002".equals(item.code())));
+        } finally {
+            jdbcTemplate.update("DELETE FROM employees WHERE code = '9002'");
+            entityManagerFactory.getCache().evict(Employee.class);
+        }
+    }
+
 }
@@ -0,0 +1,92 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.techacademy.dto.ImportResult;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// 従業員の一括登録中のログイン
+// 一括登録のパスワードのハッシュ化がログインと同じスレッドプールの待ち行列を使い切らないことを確認する
+// (待ち行列を小さくし、ハッシュ化が一括登録の処理中に終わらないようコストを上げて確認する)
+@SpringBootTest(properties = { "app.security.password-hashing.threads=1",
+        "app.security.password-hashing.queue-capacity=2", "app.security.bcrypt-strength=8" })
+@ExtendWith(SpringExtension.class)
+class ImportServiceLoginTest {
+
+    private static final int ROWS = 300;
+
+    private final MockMvc mockMvc;
+
+    @Autowired
+    private ImportService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    ImportServiceLoginTest(WebApplicationContext context) {
+        // Spring Securityを有効にする
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("DELETE FROM employees WHERE code LIKE '8%'");
+        cacheManager.getCache(UserDetailService.CACHE_NAME).clear();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void testLoginDuringImport() throws Exception {
+        ImportResult user = service.importEmployees(toStream("社員番号,氏名,権限,パスワード\n8999,ログイン　確認,一般,abcd1234\n"));
+        assertEquals(user.imported(), 1);
+
+        StringBuilder csv = new StringBuilder("社員番号,氏名,権限,パスワード\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(8000 + i).append(",一括　登録,一般,abcd1234\n");
+        }
+        CompletableFuture<ImportResult> running = CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.importEmployees(toStream(csv.toString()));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // 一括登録のハッシュ化が始まってからログインする
+        Thread.sleep(200);
+        mockMvc.perform(formLogin().user("8999").password("abcd1234")).andExpect(authenticated());
+        assertFalse(running.isDone());
+
+        assertEquals(running.get().imported(), ROWS);
+    }
+
+    private ByteArrayInputStream toStream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,80 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import jakarta.transaction.Transactional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.techacademy.dto.ImportResult;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Employee.Role;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ImportServiceTest {
+
+    @Autowired
+    private ImportService service;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Test
+    @WithMockUser
+    @Transactional
+    void testImportEmployees() throws Exception {
+        String csv = "\uFEFF社員番号,氏名,権限,パスワード\r\n"
+                + "3,山田　花子,一般,abcd1234\r\n"
+                + "1,登録済み,ADMIN,abcd1234\r\n"
+                + "4,桁不足,GENERAL,abc\r\n"
+                + "3,ファイル内重複,GENERAL,abcd1234\r\n";
+
+        ImportResult result = service.importEmployees(toStream(csv));
+        assertEquals(result.total(), 4);
+        assertEquals(result.imported(), 1);
+        assertEquals(result.errors().size(), 3);
+
+        // エラー行はヘッダ行を1行目とした行番号で返される
+        assertEquals(result.errors().stream().map(ImportResult.ImportError::line).sorted().toList(), List.of(3, 4, 5));
+
+        // 登録された従業員のパスワードはハッシュ化されている
+        Employee employee = employeeService.findByCode("3");
+        assertEquals(employee.getName(), "山田　花子");
+        assertEquals(employee.getRole(), Role.GENERAL);
+        assertTrue(employee.getPassword().startsWith("$2"));
+    }
+
+    @Test
+    @WithMockUser
+    @Transactional
+    void testImportReports() throws Exception {
+        String csv = "社員番号,日付,タイトル,内容\n"
+                + "2,2024-01-01,タイトル,\"改行を含む\n内容\"\n"
+                + "9,2024-01-02,タイトル,内容\n"
+                + "2,2024/01/03,タイトル,内容\n";
+
+        ImportResult result = service.importReports(toStream(csv));
+        assertEquals(result.total(), 3);
+        assertEquals(result.imported(), 1);
+        assertEquals(result.errors().size(), 2);
+        assertEquals(reportService.count(), 3);
+    }
+
+    private ByteArrayInputStream toStream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
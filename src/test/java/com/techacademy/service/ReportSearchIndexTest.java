@@ -0,0 +1,61 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Report;
+
+class ReportSearchIndexTest {
+
+    private final ReportSearchIndex index = new ReportSearchIndex(null, null);
+
+    // 日付の新しい順に返され、1文字の検索語でもヒットする
+    @Test
+    void testSearch() {
+        index.put(report(1, "1", LocalDate.of(2024, 1, 1), "会議", "ＡＢＣ社との打ち合わせ"));
+        index.put(report(2, "2", LocalDate.of(2024, 1, 2), "会議", "abc社の議事録"));
+        index.put(report(3, "2", LocalDate.of(2024, 1, 3), "研修", "新人研修"));
+
+        assertEquals(index.search("abc社"), List.of(2, 1));
+        assertEquals(index.search("会議 議事録"), List.of(2));
+        assertEquals(index.search("研"), List.of(3));
+        assertEquals(index.search("存在しない"), List.of());
+        assertEquals(index.search(" "), List.of());
+    }
+
+    // 更新・削除・従業員単位の削除が反映される
+    @Test
+    void testUpdateAndRemove() {
+        index.put(report(1, "1", LocalDate.of(2024, 1, 1), "会議", "打ち合わせ"));
+        index.put(report(2, "2", LocalDate.of(2024, 1, 2), "会議", "議事録"));
+
+        index.put(report(1, "1", LocalDate.of(2024, 1, 1), "研修", "新人研修"));
+        assertEquals(index.search("会議"), List.of(2));
+        assertEquals(index.search("研修"), List.of(1));
+
+        index.remove(1);
+        assertEquals(index.search("研修"), List.of());
+
+        index.removeByEmployee("2");
+        assertEquals(index.search("会議"), List.of());
+        assertEquals(index.size(), 0);
+    }
+
+    private Report report(Integer id, String code, LocalDate reportDate, String title, String content) {
+        Employee employee = new Employee();
+        employee.setCode(code);
+        Report report = new Report();
+        report.setId(id);
+        report.setEmployee(employee);
+        report.setReportDate(reportDate);
+        report.setTitle(title);
+        report.setContent(content);
+        return report;
+    }
+
+}
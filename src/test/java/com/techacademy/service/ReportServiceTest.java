@@ -0,0 +1,85 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.transaction.Transactional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.dto.ReportListItem;
+import com.techacademy.dto.ReportPage;
+import com.techacademy.entity.Report;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ReportServiceTest {
+
+    @Autowired
+    private ReportService service;
+
+    @Test
+    @WithMockUser
+    void testFindPage() {
+
+        // 先頭ページ(日付が同じためIDの降順で並ぶ)
+        ReportPage page = service.findPage(null, null, false);
+        assertEquals(page.reportList().size(), 2);
+        ReportListItem first = page.reportList().get(0);
+        ReportListItem second = page.reportList().get(1);
+        assertTrue(first.id() > second.id());
+        assertFalse(page.hasPrev());
+        assertFalse(page.hasNext());
+
+        // 1件目をカーソルにした次のページには2件目のみ含まれる
+        ReportPage nextPage = service.findPage(first.reportDate(), first.id(), false);
+        assertEquals(nextPage.reportList().size(), 1);
+        assertEquals(nextPage.reportList().get(0).id(), second.id());
+        assertTrue(nextPage.hasPrev());
+        assertFalse(nextPage.hasNext());
+
+        // 2件目をカーソルにした前のページには1件目のみ含まれる
+        ReportPage prevPage = service.findPage(second.reportDate(), second.id(), true);
+        assertEquals(prevPage.reportList().size(), 1);
+        assertEquals(prevPage.reportList().get(0).id(), first.id());
+        assertFalse(prevPage.hasPrev());
+        assertTrue(prevPage.hasNext());
+
+        // 件数
+        assertEquals(service.count(), 2);
+    }
+
+    @Test
+    @WithMockUser
+    void testSaveDuplicateReportDate() {
+
+        // 登録済みの日報と同じ従業員・同じ日付の日報は一意制約によりエラーとなる
+        Report existingReport = service.findById(1);
+        Report report = new Report();
+        report.setEmployee(existingReport.getEmployee());
+        report.setReportDate(existingReport.getReportDate());
+        report.setTitle("重複タイトル");
+        report.setContent("重複内容");
+        assertEquals(service.save(report), ErrorKinds.DATECHECK_ERROR);
+        assertEquals(service.count(), 2);
+    }
+
+    @Test
+    @WithMockUser
+    @Transactional
+    void testDeleteByEmployee() {
+
+        // 従業員に紐づく日報のみが一括で論理削除される
+        Report report = service.findById(2);
+        assertEquals(service.deleteByEmployee(report.getEmployee()), 1);
+        assertEquals(service.count(), 1);
+        assertNull(service.findById(2));
+        assertNotNull(service.findById(1));
+    }
+
+}
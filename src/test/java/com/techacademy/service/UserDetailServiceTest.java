@@ -0,0 +1,98 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class UserDetailServiceTest {
+
+    @Autowired
+    private UserDetailService service;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testLoadUserByUsername() {
+
+        // 取得できた場合
+        UserDetails userDetail = service.loadUserByUsername("1");
+        assertEquals(userDetail.getUsername(), "1");
+        assertEquals(userDetail.getPassword(), "$2a$10$vY93/U2cXCfEMBESYnDJUevcjJ208sXav23S.K8elE/J6Sxr4w5jO");
+
+        // 2回目以降はキャッシュから同じ認証情報が返る
+        assertSame(service.loadUserByUsername("1"), userDetail);
+
+        // 取得できなかった場合
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("100"));
+    }
+
+    // 他のサーバーでの変更(JDBCで直接変更して再現する)は、第2レベルキャッシュに残っていてもログインに反映される
+    @Test
+    void testLoadUserByUsernameChangedOnOtherServer() {
+        // 第2レベルキャッシュに保存する
+        String password = employeeService.findByCode("2").getPassword();
+        try {
+            jdbcTemplate.update("UPDATE employees SET password = 'changed' WHERE code = '2'");
+            cacheManager.getCache(UserDetailService.CACHE_NAME).evict("2"); // 認証情報キャッシュの有効期限切れ
+            assertEquals(service.loadUserByUsername("2").getPassword(), "changed");
+
+            jdbcTemplate.update("UPDATE employees SET delete_flg = true WHERE code = '2'");
+            cacheManager.getCache(UserDetailService.CACHE_NAME).evict("2");
+            assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("2"));
+        } finally {
+            jdbcTemplate.update("UPDATE employees SET password = ?, delete_flg = false WHERE code = '2'", password);
+            cacheManager.getCache(UserDetailService.CACHE_NAME).evict("2");
+            entityManagerFactory.getCache().evictAll();
+        }
+    }
+
+    // セッションに保存される認証情報は社員番号・氏名・権限・版のみ(従業員エンティティ・パスワードを含まない)
+    @Test
+    void testSerialize() throws Exception {
+        UserDetail userDetail = (UserDetail) service.loadUserByUsername("1");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(userDetail);
+        }
+        assertTrue(bytes.size() < 1000);
+
+        UserDetail restored;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = (UserDetail) in.readObject();
+        }
+        assertEquals(restored.getCode(), "1");
+        assertEquals(restored.getName(), "煌木　太郎");
+        assertEquals(restored.getUpdatedAt(), userDetail.getUpdatedAt());
+        assertEquals(restored.getAuthorities(), userDetail.getAuthorities());
+        assertNull(restored.getPassword());
+    }
+
+}
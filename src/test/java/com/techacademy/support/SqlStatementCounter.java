@@ -0,0 +1,32 @@
+package com.techacademy.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// テスト用SQL発行件数カウンタ
+// spring.jpa.properties.hibernate.session_factory.statement_inspectorに指定して使用する
+// (MockMvcはテストと同一スレッドでリクエストを処理するため、スレッドごとに件数を保持する)
+public class SqlStatementCounter implements StatementInspector {
+    private static final long serialVersionUID = 1L;
+
+    // テストのプロパティ指定用
+    public static final String PROPERTY = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.techacademy.support.SqlStatementCounter";
+
+    private static final ThreadLocal<Integer> COUNT = ThreadLocal.withInitial(() -> 0);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.set(COUNT.get() + 1);
+        return sql;
+    }
+
+    // 件数をリセット
+    public static void reset() {
+        COUNT.set(0);
+    }
+
+    // リセット後に発行されたSQLの件数を取得
+    public static int count() {
+        return COUNT.get();
+    }
+}